@@ -0,0 +1,114 @@
+package com.sumitcoder.benchmark;
+
+import com.sumitcoder.RiceDistributionSystemApplication;
+import com.sumitcoder.repository.AdminUserRepository;
+import com.sumitcoder.security.jwt.JwtAuthenticationFilter;
+import com.sumitcoder.security.jwt.JwtTokenProvider;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating an admin request with a JWT.
+ * "legacyFilterPath" replays what JwtAuthenticationFilter used to do: decode the secret and
+ * parse the token twice, and load the admin from the database on every request.
+ * "cachedFilterPath" runs the current filter, with the precomputed key and the token/user caches.
+ * The application runs against the in-memory H2 test database, so the database share of the
+ * legacy path is smaller here than against a networked MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private AdminUserRepository adminUserRepository;
+    private String jwtSecret;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN");
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        adminUserRepository = context.getBean(AdminUserRepository.class);
+        jwtSecret = context.getEnvironment().getProperty("jwt.secret");
+
+        String username = context.getEnvironment().getProperty("app.initial-admin.username");
+        UserDetails admin = adminUserRepository.findByUsername(username).orElseThrow();
+        token = context.getBean(JwtTokenProvider.class).generateToken(admin);
+
+        // Make sure the measured filter path really authenticates the request.
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/records");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            throw new IllegalStateException("The JWT filter did not authenticate the benchmark token");
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void cachedFilterPath(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/records");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole blackhole) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/records");
+        request.addHeader("Authorization", "Bearer " + token);
+        String jwt = request.getHeader("Authorization").substring(7);
+
+        String username = legacyParse(jwt).getSubject();
+        UserDetails userDetails = adminUserRepository.findByUsername(username).orElseThrow();
+        Claims claims = legacyParse(jwt);
+        if (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date())) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private Claims legacyParse(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+    }
+}
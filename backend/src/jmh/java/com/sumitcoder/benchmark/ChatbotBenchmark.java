@@ -0,0 +1,107 @@
+package com.sumitcoder.benchmark;
+
+import com.sumitcoder.RiceDistributionSystemApplication;
+import com.sumitcoder.service.ChatbotService;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chatbot messages per second: the current ChatbotService.getResponse against a copy of the
+ * former if-chain (lower-casing, Pattern.compile per message and sequential contains scans).
+ * The message mix avoids the intents that query the database, so only classification and
+ * answer formatting are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatbotBenchmark {
+
+    private static final String[] MESSAGES = {
+            "Who are you?",
+            "mere ghar me 5 log hai, kitna chawal milega",
+            "How much rice for a family of 7 members please",
+            "What documents do I need to bring?",
+            "chawal ka daam kya hai",
+            "I need help, whom should I contact",
+            "namaste, aaj mausam kaisa hai? mujhe kuch samajh nahi aa raha",
+            "कृपया सहायता करें",
+    };
+
+    private ConfigurableApplicationContext context;
+    private ChatbotService chatbotService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN");
+        chatbotService = context.getBean(ChatbotService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private String nextMessage() {
+        String message = MESSAGES[next];
+        next = (next + 1) % MESSAGES.length;
+        return message;
+    }
+
+    @Benchmark
+    public String intentMatcher() {
+        return chatbotService.getResponse(nextMessage());
+    }
+
+    @Benchmark
+    public String legacyIfChain() {
+        return legacyResponse(nextMessage());
+    }
+
+    // The former classification logic, kept here only as the benchmark baseline.
+    private String legacyResponse(String userQuestion) {
+        String question = userQuestion.toLowerCase();
+        Pattern numberPattern = Pattern.compile("\\d+");
+        Matcher numberMatcher = numberPattern.matcher(question);
+
+        if (question.contains("who are you") || question.contains("your name") || question.contains("kya ho") || question.contains("kaun ho") || question.contains("नाम क्या है")) {
+            return "who";
+        }
+        if ((question.contains("kitna") || question.contains("how much")) && (question.contains("chawal") || question.contains("rice"))) {
+            if (numberMatcher.find()) {
+                int members = Integer.parseInt(numberMatcher.group());
+                double entitlement = members * 5.0;
+                return String.format("%d सदस्यों के परिवार का हक़ %.1f किलो चावल है। (A family of %d is entitled to %.1f kg of rice.)", members, entitlement, members, entitlement);
+            }
+            return "members?";
+        }
+        if (question.contains("kab hai") || question.contains("when is") || question.contains("agla") || question.contains("next")) {
+            return "announcement";
+        }
+        if (question.contains("status") || question.contains("shikayat") || question.contains("स्थिति")) {
+            Pattern trackingIdPattern = Pattern.compile("GRV-[A-Z0-9]{8}");
+            return trackingIdPattern.matcher(userQuestion.toUpperCase()).find() ? "status" : "tracking id?";
+        }
+        if (question.contains("document") || question.contains("dastaavez") || question.contains("kagaz") || question.contains("कागजात")) {
+            return "documents";
+        }
+        if (question.contains("price") || question.contains("daam") || question.contains("कीमत") || question.contains("kitne ka")) {
+            return String.format("चावल सरकारी योजना के तहत %d रुपये प्रति किलो है। (The rice is ₹%d per kg under the government scheme.)", 1, 1);
+        }
+        if (question.contains("help") || question.contains("madad") || question.contains("contact") || question.contains("सहायता") || question.contains("bat karni")) {
+            return String.format("किसी भी समस्या के लिए, आप %s से इस नंबर पर संपर्क कर सकते हैं: %s। (For any issues, you can contact %s at this number: %s.)", "a", "b", "a", "b");
+        }
+        return "fallback";
+    }
+}
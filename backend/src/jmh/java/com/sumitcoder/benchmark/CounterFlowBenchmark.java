@@ -0,0 +1,116 @@
+package com.sumitcoder.benchmark;
+
+import com.sumitcoder.RiceDistributionSystemApplication;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.service.DistributionService;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of recording one distribution at the counter, over a real Tomcat connector on localhost.
+ * "formFlow" is the current flow: autofill the family by contact number, then submit the full
+ * form, which rewrites the Family row and evicts its cached autofill entry. "scanFlow" posts the
+ * scanned ration card token and the kg to /api/records/public/scan. Families rotate over a
+ * pre-registered set so both flows look up existing families, as they do at a real counter, and
+ * each round over the set moves on to the next month, since a family is recorded once per month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CounterFlowBenchmark {
+
+    private static final int FAMILIES = 1000;
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 2, 3);
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < FAMILIES; i++) {
+            DistributionRecordDto row = new DistributionRecordDto();
+            row.setFamilyHeadName("Head " + i);
+            row.setContactNumber(contactNumber(i));
+            row.setNumMembers(4);
+            row.setVillageName("Rampur");
+            row.setRiceReceivedKg(BigDecimal.valueOf(20));
+            row.setDistributionDate(LocalDate.of(2024, 1, 2));
+            rows.add(row);
+        }
+        context.getBean(DistributionService.class).createRecordsInBulk(rows);
+
+        if (formFlow() != 201 || scanFlow() != 201) {
+            throw new IllegalStateException("The counter endpoints did not record the distribution");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int formFlow() throws Exception {
+        int n = next.getAndIncrement();
+        int i = n % FAMILIES;
+        HttpRequest autofill = HttpRequest.newBuilder(URI.create(baseUrl + "/api/families/public/by-contact/" + contactNumber(i)))
+                .GET().build();
+        client.send(autofill, HttpResponse.BodyHandlers.discarding());
+        String body = "{\"familyHeadName\":\"Head " + i + "\",\"contactNumber\":\"" + contactNumber(i)
+                + "\",\"numMembers\":4,\"villageName\":\"Rampur\",\"riceReceivedKg\":20,\"distributionDate\":\"" + date(n) + "\"}";
+        return post("/api/records/public", body);
+    }
+
+    @Benchmark
+    public int scanFlow() throws Exception {
+        int n = next.getAndIncrement();
+        int i = n % FAMILIES;
+        String body = "{\"token\":\"" + contactNumber(i) + "\",\"riceReceivedKg\":20,\"distributionDate\":\"" + date(n) + "\"}";
+        return post("/api/records/public/scan", body);
+    }
+
+    private int post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String date(int n) {
+        return FIRST_DATE.plusMonths(n / FAMILIES).format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    private static String contactNumber(int i) {
+        return String.format("77%08d", i);
+    }
+}
@@ -0,0 +1,204 @@
+package com.sumitcoder.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.RiceDistributionSystemApplication;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.GrievanceCommentDto;
+import com.sumitcoder.dto.GrievanceDto;
+import com.sumitcoder.entity.DistributionRecord;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.entity.Grievance;
+import com.sumitcoder.entity.GrievanceComment;
+import com.sumitcoder.security.jwt.JwtTokenProvider;
+import com.sumitcoder.security.jwt.VerifiedToken;
+import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.GrievanceService;
+import com.sumitcoder.service.QrCodeService;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths, without the database or the network: mapping a page of distribution
+ * records, a grievance and a page of its comments to DTOs, serialising a page of records with the application's
+ * ObjectMapper, issuing and verifying admin JWTs, and rendering a ration card QR code.
+ * The private convertToDto methods are called through method handles on the unproxied services.
+ * ChatbotService.getResponse is measured by ChatbotBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceHotPathBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    // A full page of GrievanceService.getComments, the largest a client can ask for
+    private static final int COMMENT_PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private MethodHandle distributionToDto;
+    private MethodHandle grievanceToDto;
+    private MethodHandle commentToDto;
+    private Object distributionService;
+    private Object grievanceService;
+    private JwtTokenProvider cachingTokenProvider;
+    private JwtTokenProvider tokenProvider;
+    private QrCodeService qrCodeService;
+    private ObjectMapper objectMapper;
+
+    private List<DistributionRecord> records;
+    private Page<DistributionRecordDto> recordPage;
+    private Grievance grievance;
+    private Page<GrievanceComment> commentPage;
+    private UserDetails admin;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Throwable {
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN");
+        distributionService = AopTestUtils.getUltimateTargetObject(context.getBean(DistributionService.class));
+        grievanceService = AopTestUtils.getUltimateTargetObject(context.getBean(GrievanceService.class));
+        cachingTokenProvider = context.getBean(JwtTokenProvider.class);
+        tokenProvider = AopTestUtils.getUltimateTargetObject(cachingTokenProvider);
+        qrCodeService = context.getBean(QrCodeService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        distributionToDto = MethodHandles.privateLookupIn(DistributionService.class, MethodHandles.lookup())
+                .findVirtual(DistributionService.class, "convertToDto",
+                        MethodType.methodType(DistributionRecordDto.class, DistributionRecord.class));
+        grievanceToDto = MethodHandles.privateLookupIn(GrievanceService.class, MethodHandles.lookup())
+                .findVirtual(GrievanceService.class, "convertToDto",
+                        MethodType.methodType(GrievanceDto.class, Grievance.class, long.class));
+        commentToDto = MethodHandles.privateLookupIn(GrievanceService.class, MethodHandles.lookup())
+                .findVirtual(GrievanceService.class, "convertCommentToDto",
+                        MethodType.methodType(GrievanceCommentDto.class, GrievanceComment.class));
+
+        records = new ArrayList<>();
+        List<DistributionRecordDto> dtos = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Family family = new Family();
+            family.setId((long) i);
+            family.setFamilyHeadName("Head " + i);
+            family.setContactNumber(String.format("88%08d", i));
+            family.setNumMembers(1 + i % 7);
+            family.setVillageName("Rampur");
+            family.setUniqueFamilyId(String.format("RAM-%05d", i));
+            DistributionRecord record = new DistributionRecord();
+            record.setId((long) i);
+            record.setFamily(family);
+            record.setRiceReceivedKg(BigDecimal.valueOf(20));
+            record.setDistributionDate(LocalDate.of(2024, 3, 1 + i % 28));
+            record.setEntitlementKg(i % 2 == 0 ? BigDecimal.valueOf(family.getNumMembers() * 5L) : null);
+            records.add(record);
+            dtos.add((DistributionRecordDto) distributionToDto.invoke(distributionService, record));
+        }
+        recordPage = new PageImpl<>(dtos, PageRequest.of(0, PAGE_SIZE), 10_000);
+
+        grievance = grievance();
+        List<GrievanceComment> comments = new ArrayList<>();
+        for (int i = 0; i < COMMENT_PAGE_SIZE; i++) {
+            GrievanceComment comment = new GrievanceComment();
+            comment.setId((long) i);
+            comment.setContent("Update " + i);
+            comment.setCreatedAt(LocalDateTime.of(2024, 3, 2, 10, 0).plusMinutes(i));
+            comment.setGrievance(grievance);
+            comments.add(comment);
+        }
+        commentPage = new PageImpl<>(comments, PageRequest.of(0, COMMENT_PAGE_SIZE), 5_000);
+        // Image URLs are built from the current request
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        admin = User.withUsername("admin").password("unused").roles("ADMIN").build();
+        token = tokenProvider.generateToken(admin);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public void distributionRecordPageToDto(Blackhole blackhole) throws Throwable {
+        for (DistributionRecord record : records) {
+            blackhole.consume((DistributionRecordDto) distributionToDto.invoke(distributionService, record));
+        }
+    }
+
+    @Benchmark
+    public GrievanceDto grievanceToDto() throws Throwable {
+        return (GrievanceDto) grievanceToDto.invoke(grievanceService, grievance, 0L);
+    }
+
+    @Benchmark
+    public void grievanceCommentPageToDto(Blackhole blackhole) throws Throwable {
+        for (GrievanceComment comment : commentPage) {
+            blackhole.consume((GrievanceCommentDto) commentToDto.invoke(grievanceService, comment));
+        }
+    }
+
+    @Benchmark
+    public byte[] distributionRecordPageToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(recordPage);
+    }
+
+    @Benchmark
+    public String jwtGenerate() {
+        return tokenProvider.generateToken(admin);
+    }
+
+    @Benchmark
+    public VerifiedToken jwtVerify() {
+        return tokenProvider.verifyToken(token);
+    }
+
+    @Benchmark
+    public VerifiedToken jwtVerifyCached() {
+        return cachingTokenProvider.verifyToken(token);
+    }
+
+    @Benchmark
+    public byte[] qrCodeImage() throws Exception {
+        return qrCodeService.generateQrCodeImage("RAM-0001Z", 300, 300);
+    }
+
+    private static Grievance grievance() {
+        Grievance grievance = new Grievance();
+        grievance.setId(1L);
+        grievance.setTrackingId("GRV-20240302-0001");
+        grievance.setSubject("Short ration");
+        grievance.setContent("Received 15 kg instead of 20 kg this month.");
+        grievance.setContactInfo("9800000001");
+        grievance.setImageFilename("ab/cd/abcdef.jpg");
+        grievance.setThumbnailFilename("ab/cd/abcdef-thumb.jpg");
+        grievance.setImageStatus(Grievance.IMAGE_READY);
+        grievance.setCreatedAt(LocalDateTime.of(2024, 3, 2, 9, 30));
+        return grievance;
+    }
+}
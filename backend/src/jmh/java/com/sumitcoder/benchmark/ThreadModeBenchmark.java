@@ -0,0 +1,120 @@
+package com.sumitcoder.benchmark;
+
+import com.sumitcoder.RiceDistributionSystemApplication;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.service.DistributionService;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distribution-day burst against the servlet stack on platform threads and on virtual threads,
+ * with the same database pool. 256 clients (more than Tomcat's 200 platform threads) scan ration
+ * cards at the counter and look families up; JMH reports throughput and the latency percentiles
+ * (p99 in the SampleTime results) for each thread mode.
+ *
+ * The virtual mode needs a Java 21 JVM. The test profile's in-memory H2 hardly blocks, so for
+ * numbers that reflect MySQL round trips point the application at a real database, e.g.
+ * -Djmh.args="ThreadModeBenchmark -jvmArgsAppend -Dspring.datasource.url=jdbc:mysql://..."
+ * Pinned virtual threads are printed by -Djdk.tracePinnedThreads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ThreadModeBenchmark {
+
+    private static final int FAMILIES = 2000;
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 2, 3);
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"10"})
+    public int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21; this JVM is " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < FAMILIES; i++) {
+            DistributionRecordDto row = new DistributionRecordDto();
+            row.setFamilyHeadName("Head " + i);
+            row.setContactNumber(contactNumber(i));
+            row.setNumMembers(4);
+            row.setVillageName("Rampur");
+            row.setRiceReceivedKg(BigDecimal.valueOf(20));
+            row.setDistributionDate(LocalDate.of(2024, 1, 2));
+            rows.add(row);
+        }
+        context.getBean(DistributionService.class).createRecordsInBulk(rows);
+
+        if (scan() != 201) {
+            throw new IllegalStateException("The scan endpoint did not record the distribution");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int scan() throws Exception {
+        int n = next.getAndIncrement();
+        String body = "{\"token\":\"" + contactNumber(n % FAMILIES) + "\",\"riceReceivedKg\":20,\"distributionDate\":\""
+                + FIRST_DATE.plusMonths(n / FAMILIES).format(DateTimeFormatter.ISO_LOCAL_DATE) + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/records/public/scan"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int lookup() throws Exception {
+        int i = next.getAndIncrement() % FAMILIES;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/families/public/by-contact/" + contactNumber(i)))
+                .GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String contactNumber(int i) {
+        return String.format("66%08d", i);
+    }
+}
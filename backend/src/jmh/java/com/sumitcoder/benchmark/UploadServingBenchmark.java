@@ -0,0 +1,99 @@
+package com.sumitcoder.benchmark;
+
+import com.sumitcoder.RiceDistributionSystemApplication;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of GET /uploads for a large (8 MB) grievance photo over a real Tomcat connector on
+ * localhost, with the container's sendfile path switched on and off (app.uploads.sendfile).
+ * "fullDownload" fetches the whole file, "rangeRequest" one 1 MB range, and "revalidation" the
+ * If-None-Match round-trip a browser makes instead of re-downloading (answered with a 304).
+ * Run with -t 4 or more to see the effect of freeing request threads from copying.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadServingBenchmark {
+
+    private static final String NAME = "fedcba9876543210".repeat(4) + ".jpg";
+
+    private static final int SIZE = 8 * 1024 * 1024;
+
+    @Param({ "true", "false" })
+    public boolean sendfile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest full;
+    private HttpRequest range;
+    private HttpRequest conditional;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        Path uploadDir = Paths.get("target", "jmh-uploads").toAbsolutePath();
+        Path file = uploadDir.resolve("fe/dc/" + NAME);
+        Files.createDirectories(file.getParent());
+        byte[] content = new byte[SIZE];
+        new Random(7).nextBytes(content);
+        Files.write(file, content);
+
+        context = new SpringApplicationBuilder(RiceDistributionSystemApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--logging.level.root=WARN",
+                        "--file.upload-dir=" + uploadDir,
+                        "--app.uploads.sendfile=" + sendfile);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI uri = URI.create("http://localhost:" + port + "/uploads/fe/dc/" + NAME);
+        full = HttpRequest.newBuilder(uri).GET().build();
+        range = HttpRequest.newBuilder(uri).header("Range", "bytes=1048576-2097151").GET().build();
+        conditional = HttpRequest.newBuilder(uri).header("If-None-Match", "\"" + NAME + "\"").GET().build();
+
+        if (send(full) != SIZE || send(range) != 1024 * 1024) {
+            throw new IllegalStateException("/uploads did not return the expected number of bytes");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public long fullDownload() throws Exception {
+        return send(full);
+    }
+
+    @Benchmark
+    public long rangeRequest() throws Exception {
+        return send(range);
+    }
+
+    @Benchmark
+    public long revalidation() throws Exception {
+        return client.send(conditional, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Counts the body bytes without keeping them
+    private long send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofInputStream()).body().transferTo(java.io.OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,58 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    // Validates, hashes and thumbnails uploaded grievance images off the request thread.
+    public static final String IMAGE_PROCESSING_EXECUTOR = "imageProcessingExecutor";
+
+    // Renders ration card QR codes for batch downloads, one thread per core by default.
+    public static final String QR_CODE_EXECUTOR = "qrCodeExecutor";
+
+    @Value("${app.qr.batch.parallelism:0}")
+    private int qrCodeParallelism;
+
+    @Value("${app.uploads.processing.pool-size:2}")
+    private int imageProcessingPoolSize;
+
+    @Value("${app.uploads.processing.queue-capacity:100}")
+    private int imageProcessingQueueCapacity;
+
+    @Bean(name = IMAGE_PROCESSING_EXECUTOR)
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageProcessingPoolSize);
+        executor.setMaxPoolSize(imageProcessingPoolSize);
+        executor.setQueueCapacity(imageProcessingQueueCapacity);
+        executor.setThreadNamePrefix("image-processing-");
+        // Bounded: when the queue is full the uploading request processes its own image,
+        // which slows uploads down instead of letting the backlog grow without limit.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Bean(name = QR_CODE_EXECUTOR)
+    public ThreadPoolTaskExecutor qrCodeExecutor() {
+        int threads = qrCodeParallelism > 0 ? qrCodeParallelism : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Callers keep only a few images per thread in flight (see QrCodeService.writeQrCodeZip)
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("qr-code-");
+        return executor;
+    }
+}
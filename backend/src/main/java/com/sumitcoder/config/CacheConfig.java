@@ -0,0 +1,97 @@
+package com.sumitcoder.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Public family lookups by contact number (the counter autofill). Values are Optional<FamilyDto>,
+    // so "not found" answers are cached too.
+    public static final String FAMILIES_BY_CONTACT = "familiesByContact";
+
+    // Admin UserDetails looked up by the JWT filter on every authenticated request.
+    // AdminUserService evicts an entry when that admin's password changes or is reset.
+    public static final String ADMIN_USERS = "adminUsers";
+
+    // Tokens whose signature and expiry were already verified (token -> VerifiedToken).
+    public static final String VERIFIED_TOKENS = "verifiedTokens";
+
+    // A single entry: the newest announcements plus the total count, for the public feed and the chatbot.
+    // AnnouncementService clears it whenever an announcement is created, updated or deleted.
+    public static final String LATEST_ANNOUNCEMENTS = "latestAnnouncements";
+
+    // Resolved /uploads resources (request path and accepted encoding -> file), so serving an
+    // image does not probe the file system for .gz variants every time.
+    public static final String UPLOAD_RESOURCES = "uploadResources";
+
+    @Value("${app.cache.families-by-contact.max-size:10000}")
+    private long familiesByContactMaxSize;
+
+    @Value("${app.cache.families-by-contact.ttl:10m}")
+    private Duration familiesByContactTtl;
+
+    @Value("${app.cache.latest-announcements.ttl:5m}")
+    private Duration latestAnnouncementsTtl;
+
+    @Value("${app.cache.upload-resources.max-size:10000}")
+    private long uploadResourcesMaxSize;
+
+    @Value("${app.cache.upload-resources.ttl:10m}")
+    private Duration uploadResourcesTtl;
+
+    @Value("${app.cache.admin-users.ttl:5m}")
+    private Duration adminUsersTtl;
+
+    @Value("${app.cache.verified-tokens.max-size:10000}")
+    private long verifiedTokensMaxSize;
+
+    @Value("${app.cache.verified-tokens.ttl:60s}")
+    private Duration verifiedTokensTtl;
+
+    /**
+     * Bounded in-process caches, each with its own size and TTL. Every cache records statistics,
+     * which Actuator publishes as the cache.gets / cache.puts / cache.evictions metrics.
+     * The manager is transaction-aware: a put or evict made inside a transaction is applied only
+     * after it commits, so a rolled-back write never leaves a stale entry behind.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(FAMILIES_BY_CONTACT, Caffeine.newBuilder()
+                .maximumSize(familiesByContactMaxSize)
+                .expireAfterWrite(familiesByContactTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(LATEST_ANNOUNCEMENTS, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(latestAnnouncementsTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(UPLOAD_RESOURCES, Caffeine.newBuilder()
+                .maximumSize(uploadResourcesMaxSize)
+                .expireAfterWrite(uploadResourcesTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(ADMIN_USERS, Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(adminUsersTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(VERIFIED_TOKENS, Caffeine.newBuilder()
+                .maximumSize(verifiedTokensMaxSize)
+                .expireAfterWrite(verifiedTokensTtl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
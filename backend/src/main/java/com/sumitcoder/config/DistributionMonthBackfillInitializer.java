@@ -0,0 +1,54 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.sumitcoder.repository.DistributionRecordRepository;
+import com.sumitcoder.service.DistributionService;
+
+import java.util.List;
+
+/**
+ * One-time data migration for distribution_month, the key of the once-per-month rule.
+ * Records written before it existed get it in chunks of ids with one short transaction each.
+ * Where a family already had several records in one month, only the earliest is given the
+ * month; the others are left as they are and reported here.
+ */
+@Component
+@Order(5)
+public class DistributionMonthBackfillInitializer implements CommandLineRunner {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private DistributionRecordRepository distributionRecordRepository;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int filled = 0;
+        int leftUnchanged = 0;
+        long lastId = 0;
+        List<Long> ids;
+        while (!(ids = distributionRecordRepository.findIdsWithoutDistributionMonthAfter(lastId, Limit.of(CHUNK_SIZE))).isEmpty()) {
+            long toId = ids.get(ids.size() - 1);
+            int chunkFilled = distributionService.backfillDistributionMonths(ids.get(0), toId);
+            filled += chunkFilled;
+            leftUnchanged += ids.size() - chunkFilled;
+            lastId = toId;
+        }
+        // Duplicates left by an earlier run keep their null month; only report what this run changed
+        if (filled > 0) {
+            System.out.println("Backfilled the distribution month of " + filled + " distribution records.");
+            if (leftUnchanged > 0) {
+                System.out.println("Some families were recorded more than once in a month before this was prevented; "
+                        + leftUnchanged + " such records were left unchanged.");
+            }
+        }
+    }
+}
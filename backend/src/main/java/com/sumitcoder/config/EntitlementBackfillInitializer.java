@@ -0,0 +1,46 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.sumitcoder.repository.DistributionRecordRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * One-time data migration for the entitlement snapshot on distribution records.
+ * Rows written before the snapshot columns existed get them filled in from their family
+ * and the configured rate, in id ranges so no single UPDATE locks a large part of the table.
+ * It runs before SummaryBackfillInitializer, whose rebuild reads the snapshot.
+ */
+@Component
+@Order(1)
+public class EntitlementBackfillInitializer implements CommandLineRunner {
+
+    private static final long CHUNK_SIZE = 5000;
+
+    @Autowired
+    private DistributionRecordRepository distributionRecordRepository;
+
+    @Value("${app.rice-per-person-kg}")
+    private double ricePerPersonKg;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long firstId = distributionRecordRepository.findFirstIdWithoutEntitlement();
+        if (firstId == null) {
+            return;
+        }
+        long maxId = distributionRecordRepository.findMaxId();
+        BigDecimal rate = BigDecimal.valueOf(ricePerPersonKg);
+
+        int updated = 0;
+        for (long fromId = firstId; fromId <= maxId; fromId += CHUNK_SIZE) {
+            updated += distributionRecordRepository.backfillEntitlement(rate, fromId, fromId + CHUNK_SIZE - 1);
+        }
+        System.out.println("Backfilled the entitlement snapshot of " + updated + " distribution records.");
+    }
+}
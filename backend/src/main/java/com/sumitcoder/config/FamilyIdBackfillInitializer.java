@@ -0,0 +1,42 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.sumitcoder.repository.FamilyRepository;
+import com.sumitcoder.service.FamilyService;
+
+/**
+ * One-time data migration for uniqueFamilyId. Families created before ids were assigned
+ * get one from FamilyIdGenerator, in id ranges with one short transaction each, so the
+ * backfill never holds locks on a large part of the families table.
+ */
+@Component
+@Order(4)
+public class FamilyIdBackfillInitializer implements CommandLineRunner {
+
+    private static final long CHUNK_SIZE = 1000;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long firstId = familyRepository.findFirstIdWithoutUniqueFamilyId();
+        if (firstId == null) {
+            return;
+        }
+        long maxId = familyRepository.findMaxId();
+
+        int assigned = 0;
+        for (long fromId = firstId; fromId <= maxId; fromId += CHUNK_SIZE) {
+            assigned += familyService.backfillUniqueFamilyIds(fromId, fromId + CHUNK_SIZE - 1);
+        }
+        System.out.println("Assigned a uniqueFamilyId to " + assigned + " existing families.");
+    }
+}
@@ -1,20 +1,99 @@
 package com.sumitcoder.config;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import com.sumitcoder.ratelimit.LoadSheddingInterceptor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 @Configuration
 public class MvcConfig implements WebMvcConfigurer {
 
+    // Content-addressed uploads are named after the SHA-256 of their content (see FileStorageService).
+    private static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("^[0-9a-f]{64}.*");
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private LoadSheddingInterceptor loadSheddingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(loadSheddingInterceptor);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // This makes the 'uploads' directory accessible via the /uploads/** URL path
+        // This makes the 'uploads' directory accessible via the /uploads/** URL path.
+        // An uploaded file never changes under its name, so browsers may keep it for a year without revalidating.
+        // Range requests and If-None-Match / If-Modified-Since are handled by Spring's resource handler.
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+                .addResourceLocations("file:" + uploadDir + "/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .setEtagGenerator(MvcConfig::uploadEtag)
+                .resourceChain(true, cacheManager.getCache(CacheConfig.UPLOAD_RESOURCES))
+                // Serves a stored .gz sibling to clients that accept gzip (written only where it saves space)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    /**
+     * Switches Spring's resource handlers (uploads and static files) to sendfile-capable converters,
+     * unless app.uploads.sendfile is false.
+     */
+    @Bean
+    public static BeanPostProcessor sendfileResourceHandlerPostProcessor(Environment environment) {
+        boolean enabled = environment.getProperty("app.uploads.sendfile", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (enabled && bean instanceof SimpleUrlHandlerMapping mapping) {
+                    for (Object handler : mapping.getHandlerMap().values()) {
+                        if (handler instanceof ResourceHttpRequestHandler resourceHandler) {
+                            resourceHandler.setResourceHttpMessageConverter(new SendfileResourceHttpMessageConverter());
+                            resourceHandler.setResourceRegionHttpMessageConverter(new SendfileResourceHttpMessageConverter.Regions());
+                        }
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Strong ETags: the file name itself for content-addressed files (it already encodes the content,
+    // and the .gz variant has its own name), otherwise the usual modification time and length.
+    private static String uploadEtag(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename != null && CONTENT_ADDRESSED_NAME.matcher(filename).matches()) {
+            return "\"" + filename + "\"";
+        }
+        try {
+            return "\"" + Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength()) + "\"";
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.sumitcoder.entity.Grievance;
+import com.sumitcoder.repository.GrievanceRepository;
+import com.sumitcoder.service.GrievanceImageProcessor;
+
+import java.util.List;
+
+@Component
+@Order(3)
+public class PendingImageRecoveryInitializer implements CommandLineRunner {
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private GrievanceImageProcessor grievanceImageProcessor;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // Images still PENDING were staged but not processed before the last shutdown.
+        // Queue them again; a staged file that has gone missing ends up REJECTED.
+        List<Grievance> pending = grievanceRepository.findByImageStatus(Grievance.IMAGE_PENDING);
+        for (Grievance grievance : pending) {
+            grievanceImageProcessor.process(grievance.getId(), grievance.getImageFilename());
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("Re-queued " + pending.size() + " pending grievance images for processing.");
+        }
+    }
+}
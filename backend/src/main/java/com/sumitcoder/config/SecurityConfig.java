@@ -1,8 +1,10 @@
 package com.sumitcoder.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -32,6 +34,19 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // The port the actuator is served on (management.server.port), known once its server has started
+    private volatile int managementPort = -1;
+
+    /**
+     * Notes the actual port of the management server, which is chosen at random in tests.
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -52,10 +67,16 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                        // The actuator has its own port, bound to management.server.address (loopback unless
+                        // configured otherwise), so a Prometheus scraper can read it without an admin token
+                        .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+
                         // Define all public-facing endpoints here
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/records/public").permitAll()
+                        .requestMatchers("/api/records/public/scan").permitAll()
                         .requestMatchers("/api/announcements/public").permitAll()
+                        .requestMatchers("/api/announcements/public/scroll").permitAll()
                         .requestMatchers("/api/grievances/public").permitAll()
                         .requestMatchers("/api/grievances/public/status/**").permitAll()
                         .requestMatchers("/api/families/public/by-contact/**").permitAll()
@@ -81,7 +102,7 @@ public class SecurityConfig {
                 "https://fair-rice-portal.vercel.app/"
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotency-Key"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,85 @@
+package com.sumitcoder.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Writes file resources with the servlet container's sendfile support (FileChannel.transferTo) instead
+ * of copying them through the JVM heap. Tomcat's NIO connector advertises sendfile with a request
+ * attribute; when it does, the file name and byte range are handed over as request attributes, exactly
+ * as Tomcat's own DefaultServlet does, and the container streams the file after the handler returns.
+ * Small files, non-file resources and containers without sendfile fall back to the normal copy.
+ */
+public class SendfileResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // Below this size a plain copy is cheaper than setting up sendfile (Tomcat's DefaultServlet uses the same threshold).
+    static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!trySendfile(resource, 0, resource.contentLength())) {
+            super.writeContent(resource, outputMessage);
+        }
+    }
+
+    /**
+     * Asks the container to send bytes [start, start + length) of the resource's file.
+     * @return false if the caller has to write the bytes itself.
+     */
+    static boolean trySendfile(Resource resource, long start, long length) throws IOException {
+        if (length < SENDFILE_THRESHOLD || !resource.isFile()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            return false;
+        }
+        File file = resource.getFile();
+        request.setAttribute(SENDFILE_FILENAME_ATTR, file.getCanonicalPath());
+        request.setAttribute(SENDFILE_FILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_FILE_END_ATTR, start + length);
+        return true;
+    }
+
+    /**
+     * Range requests for a single range go through sendfile too. Multi-range responses
+     * (multipart/byteranges) are rare and keep Spring's regular implementation.
+     */
+    public static class Regions extends ResourceRegionHttpMessageConverter {
+
+        @Override
+        protected void writeResourceRegion(ResourceRegion region, HttpOutputMessage outputMessage) throws IOException {
+            Resource resource = region.getResource();
+            long start = region.getPosition();
+            long length = region.getCount();
+            long resourceLength = resource.contentLength();
+            if (!trySendfile(resource, start, Math.min(length, resourceLength - start))) {
+                super.writeResourceRegion(region, outputMessage);
+                return;
+            }
+            long end = Math.min(start + length - 1, resourceLength - 1);
+            HttpHeaders headers = outputMessage.getHeaders();
+            headers.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
+            headers.setContentLength(end - start + 1);
+        }
+    }
+}
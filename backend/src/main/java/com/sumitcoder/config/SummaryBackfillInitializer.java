@@ -0,0 +1,32 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.sumitcoder.repository.VillageMonthlySummaryRepository;
+import com.sumitcoder.service.MonthlySummaryService;
+
+@Component
+@Order(2)
+public class SummaryBackfillInitializer implements CommandLineRunner {
+
+    @Autowired
+    private VillageMonthlySummaryRepository summaryRepository;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // On the first start after the rollup table was added it is empty,
+        // so backfill it once from the records that already exist.
+        if (summaryRepository.count() == 0) {
+            int rows = monthlySummaryService.rebuildAll();
+            if (rows > 0) {
+                System.out.println("Backfilled " + rows + " monthly summary rows from existing distribution records.");
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sumitcoder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports at startup whether requests run on virtual threads. spring.threads.virtual.enabled is
+ * silently ignored below Java 21, so asking for virtual threads on an older runtime gets a warning
+ * instead of quietly keeping the platform thread pool.
+ */
+@Component
+public class ThreadingModeReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsRequested && javaVersion < 21) {
+            System.out.println("WARNING: spring.threads.virtual.enabled is set, but virtual threads need Java 21 (running "
+                    + javaVersion + "). Requests run on the platform thread pool.");
+        } else {
+            System.out.println("Requests run on " + (virtualThreadsRequested ? "virtual threads" : "platform threads")
+                    + " with a pool of " + poolSize + " database connections.");
+        }
+    }
+}
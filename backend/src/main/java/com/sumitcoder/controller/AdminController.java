@@ -10,9 +10,13 @@ import com.sumitcoder.dto.ForgotPasswordDto;
 import com.sumitcoder.dto.PasswordChangeDto;
 import com.sumitcoder.dto.ResetPasswordDto;
 import com.sumitcoder.service.AdminUserService;
+import com.sumitcoder.service.FileStorageService;
+import com.sumitcoder.service.UploadGarbageCollector;
 
 import jakarta.validation.Valid;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
@@ -20,6 +24,9 @@ public class AdminController {
     @Autowired
     private AdminUserService adminUserService;
 
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
+
     /**
      * Secure endpoint for a logged-in admin to change their own password.
      */
@@ -72,5 +79,15 @@ public class AdminController {
             return ResponseEntity.status(500).body("An unexpected error occurred.");
         }
     }
-}
 
+    /**
+     * NEW: Secure endpoint to run the upload garbage collection now instead of waiting for the nightly run.
+     */
+    @PostMapping("/uploads/gc")
+    public ResponseEntity<Map<String, Long>> collectUploadGarbage() {
+        FileStorageService.GarbageCollectionResult result = uploadGarbageCollector.collectGarbage();
+        return ResponseEntity.ok(Map.of(
+                "deletedFiles", result.getDeletedFiles(),
+                "freedBytes", result.getFreedBytes()));
+    }
+}
@@ -5,15 +5,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
 import com.sumitcoder.dto.AnnouncementDto;
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.service.AnnouncementService;
 
 import jakarta.validation.Valid;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @RestController
 @RequestMapping("/api/announcements")
 public class AnnouncementController {
@@ -27,6 +34,8 @@ public class AnnouncementController {
      * @param page The page number to retrieve (defaults to 0).
      * @param size The number of announcements per page (defaults to 10).
      * @return A Page object containing announcements and pagination details.
+     *         NEW: The response carries an ETag and Last-Modified, so a client polling with
+     *         If-None-Match / If-Modified-Since gets a bodiless 304 while the feed is unchanged.
      */
     @GetMapping("/public")
     public ResponseEntity<Page<AnnouncementDto>> getPublicAnnouncements(
@@ -35,8 +44,30 @@ public class AnnouncementController {
         
         // Create a Pageable object to fetch announcements, sorted by newest first
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<AnnouncementDto> announcementsPage = announcementService.getAllAnnouncements(pageable);
-        return ResponseEntity.ok(announcementsPage);
+        Page<AnnouncementDto> announcementsPage = announcementService.getPublicAnnouncements(pageable);
+
+        // Spring answers 304 itself when the request's validators match these headers.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(computeETag(announcementsPage));
+        LocalDateTime lastModified = lastModified(announcementsPage);
+        if (lastModified != null) {
+            response.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        }
+        return response.body(announcementsPage);
+    }
+
+    /**
+     * Public, opt-in keyset variant of getPublicAnnouncements.
+     * @param cursor The nextCursor of the previous slice (omit for the first slice).
+     * @param size The number of announcements per slice (defaults to 10, at most 100).
+     * @return A slice of announcements, newest first, with the cursor for the next slice.
+     */
+    @GetMapping("/public/scroll")
+    public ResponseEntity<CursorPageDto<AnnouncementDto>> scrollPublicAnnouncements(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(announcementService.scrollAnnouncements(cursor, size));
     }
 
     @PostMapping("/admin")
@@ -55,5 +86,33 @@ public class AnnouncementController {
         announcementService.deleteAnnouncement(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    // --- Helper Methods ---
+
+    // Covers the page window, the total (so deletions change it) and each row's last write.
+    private String computeETag(Page<AnnouncementDto> page) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements());
+        for (AnnouncementDto dto : page.getContent()) {
+            key.append(':').append(dto.getId()).append('@').append(latestWrite(dto));
+        }
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime lastModified(Page<AnnouncementDto> page) {
+        LocalDateTime lastModified = null;
+        for (AnnouncementDto dto : page.getContent()) {
+            LocalDateTime written = latestWrite(dto);
+            if (written != null && (lastModified == null || written.isAfter(lastModified))) {
+                lastModified = written;
+            }
+        }
+        return lastModified;
+    }
+
+    private LocalDateTime latestWrite(AnnouncementDto dto) {
+        return dto.getUpdatedAt() != null ? dto.getUpdatedAt() : dto.getCreatedAt();
+    }
+}
@@ -1,19 +1,30 @@
 package com.sumitcoder.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sumitcoder.dto.BulkIngestResponseDto;
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.ScanRecordDto;
+import com.sumitcoder.exception.BadRequestException;
 import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.RecordExportService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/records")
 public class DistributionController {
@@ -21,10 +32,48 @@ public class DistributionController {
     @Autowired
     private DistributionService distributionService;
 
+    @Autowired
+    private RecordExportService recordExportService;
+
+    @Value("${app.records.bulk.max-rows:5000}")
+    private int maxBulkRows;
+
+    /**
+     * UPDATED: A family is recorded at most once per month. A repeated submission returns the
+     * record already stored (200 OK, with alreadyRecorded set) instead of creating a second one.
+     */
     @PostMapping("/public")
     public ResponseEntity<DistributionRecordDto> createRecord(@Valid @RequestBody DistributionRecordDto recordDto) {
         DistributionRecordDto createdRecord = distributionService.createPublicRecord(recordDto);
-        return new ResponseEntity<>(createdRecord, HttpStatus.CREATED);
+        return new ResponseEntity<>(createdRecord, creationStatus(createdRecord));
+    }
+
+    /**
+     * NEW: Public endpoint for the counter's QR-scan fast path. Takes the scanned ration card token
+     * and the kg handed out, and records the distribution without re-submitting the family details.
+     * @param scanDto The QR token, the rice received and (optionally) the distribution date.
+     * @return The created record, with the family it was recorded for.
+     */
+    @PostMapping("/public/scan")
+    public ResponseEntity<DistributionRecordDto> createScannedRecord(@Valid @RequestBody ScanRecordDto scanDto) {
+        DistributionRecordDto createdRecord = distributionService.createScannedRecord(scanDto);
+        return new ResponseEntity<>(createdRecord, creationStatus(createdRecord));
+    }
+
+    /**
+     * Secure endpoint for ingesting many distribution records in a single request,
+     * e.g. when a depot uploads a whole day's counter log at once.
+     * Rows are validated individually, so one bad row does not reject the whole upload.
+     * @param recordDtos The records to ingest (at most app.records.bulk.max-rows).
+     * @return A summary with one result per submitted row.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkIngestResponseDto> createRecordsInBulk(@RequestBody List<DistributionRecordDto> recordDtos) {
+        if (recordDtos == null || recordDtos.isEmpty() || recordDtos.size() > maxBulkRows) {
+            return ResponseEntity.badRequest().build();
+        }
+        BulkIngestResponseDto response = distributionService.createRecordsInBulk(recordDtos);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     /**
@@ -49,5 +98,56 @@ public class DistributionController {
         Page<DistributionRecordDto> recordsPage = distributionService.getAllRecords(year, month, pageable);
         return ResponseEntity.ok(recordsPage);
     }
-}
 
+    /**
+     * Secure, opt-in keyset variant of getAllRecords for deep scrolling.
+     * Instead of a page number it takes the cursor returned with the previous slice,
+     * so the 10,000th slice costs the same as the first and no COUNT(*) is run.
+     * @param cursor The nextCursor of the previous slice (omit for the first slice).
+     * @return A slice of records, newest first, with the cursor for the next slice.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<DistributionRecordDto>> scrollRecords(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(distributionService.scrollRecords(year, month, cursor, size));
+    }
+
+    /**
+     * Secure endpoint for auditors to download a whole year (or month) of records in one go.
+     * The file is streamed straight from a database cursor to the response, so large exports
+     * neither page through the records nor hold them in memory.
+     * @param year The year to export.
+     * @param month The month to export (optional; the whole year when omitted).
+     * @param format "csv" (default) or "ndjson".
+     */
+    @GetMapping("/export")
+    public void exportRecords(
+            @RequestParam int year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        if (!RecordExportService.isSupportedFormat(format)) {
+            throw new BadRequestException("Export format must be csv or ndjson.");
+        }
+        if (month != null && (month < 1 || month > 12)) {
+            throw new BadRequestException("Month must be between 1 and 12.");
+        }
+
+        String filename = "distribution-records-" + year + (month != null ? String.format("-%02d", month) : "") + "." + format;
+        response.setContentType(RecordExportService.FORMAT_CSV.equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        recordExportService.exportRecords(year, month, format, response.getOutputStream());
+    }
+
+    // --- Helper Methods ---
+
+    // 201 for a new record, 200 when the family's record for that month already existed
+    private HttpStatus creationStatus(DistributionRecordDto record) {
+        return Boolean.TRUE.equals(record.getAlreadyRecorded()) ? HttpStatus.OK : HttpStatus.CREATED;
+    }
+}
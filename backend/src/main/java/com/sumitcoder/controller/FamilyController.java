@@ -1,16 +1,22 @@
 package com.sumitcoder.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.sumitcoder.dto.DistributionRecordDto;
 import com.sumitcoder.dto.FamilyDto;
 import com.sumitcoder.entity.Family;
+import com.sumitcoder.exception.BadRequestException;
 import com.sumitcoder.exception.ResourceNotFoundException;
-import com.sumitcoder.repository.FamilyRepository;
 import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.FamilyService;
+import com.sumitcoder.service.QrCodeService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,33 +24,42 @@ import java.util.List;
 public class FamilyController {
 
     @Autowired
-    private FamilyRepository familyRepository;
+    private FamilyService familyService;
 
     @Autowired
     private DistributionService distributionService;
 
+    @Autowired
+    private QrCodeService qrCodeService;
+
     /**
      * PUBLIC endpoint for the frontend to fetch family details after entering a contact number.
-     * This is used for the auto-fill feature.
+     * This is used for the auto-fill feature, so answers are served from an in-process cache.
      * @param contactNumber The 10-digit contact number.
      * @return The details of the corresponding family.
      */
     @GetMapping("/public/by-contact/{contactNumber}")
     public ResponseEntity<FamilyDto> getFamilyByContactNumber(@PathVariable String contactNumber) {
-        Family family = familyRepository.findByContactNumber(contactNumber)
+        FamilyDto familyDto = familyService.getFamilyByContactNumber(contactNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Family not found for this contact number: " + contactNumber));
-        
-        FamilyDto familyDto = new FamilyDto();
-        familyDto.setId(family.getId());
-        familyDto.setFamilyHeadName(family.getFamilyHeadName());
-        familyDto.setContactNumber(family.getContactNumber());
-        familyDto.setNumMembers(family.getNumMembers());
-        familyDto.setVillageName(family.getVillageName());
-        familyDto.setUniqueFamilyId(family.getUniqueFamilyId());
 
         return ResponseEntity.ok(familyDto);
     }
     
+    /**
+     * NEW: SECURE endpoint to fetch family details by the uniqueFamilyId printed on the ration card.
+     * Family ids are sequential per village, so this lookup is kept behind admin login.
+     * @param uniqueFamilyId The family's id, e.g. RAM-0001Z.
+     * @return The details of the corresponding family.
+     */
+    @GetMapping("/admin/by-id/{uniqueFamilyId}")
+    public ResponseEntity<FamilyDto> getFamilyByUniqueFamilyId(@PathVariable String uniqueFamilyId) {
+        FamilyDto familyDto = familyService.getFamilyByUniqueFamilyId(uniqueFamilyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Family not found for this family ID: " + uniqueFamilyId));
+
+        return ResponseEntity.ok(familyDto);
+    }
+
     /**
      * SECURE endpoint to get the full distribution history for a single family.
      * This is used by the "View History" button in the admin panel.
@@ -56,5 +71,27 @@ public class FamilyController {
         List<DistributionRecordDto> history = distributionService.getRecordsForFamily(familyId);
         return ResponseEntity.ok(history);
     }
-}
 
+    /**
+     * NEW: SECURE endpoint to download ration card QR codes for printing, as a ZIP with one PNG
+     * per family and an index.csv. The archive is streamed while the codes are generated.
+     * @param village Only families of this village (optional; all families when omitted).
+     * @param size The width and height of each QR code in pixels (100 to 1000, defaults to 300).
+     */
+    @GetMapping("/admin/qr-codes")
+    public void downloadQrCodes(
+            @RequestParam(required = false) String village,
+            @RequestParam(defaultValue = "300") int size,
+            HttpServletResponse response) throws IOException {
+
+        if (size < 100 || size > 1000) {
+            throw new BadRequestException("QR code size must be between 100 and 1000 pixels.");
+        }
+
+        List<Family> families = qrCodeService.findFamiliesForQrBatch(village);
+        String filename = "qr-codes" + (village != null ? "-" + village.replaceAll("[^A-Za-z0-9_-]", "_") : "") + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        qrCodeService.writeQrCodeZip(families, size, response.getOutputStream());
+    }
+}
@@ -1,6 +1,7 @@
 package com.sumitcoder.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.dto.GrievanceCommentDto;
 import com.sumitcoder.dto.GrievanceDto;
 import com.sumitcoder.service.GrievanceService;
@@ -44,6 +45,19 @@ public class GrievanceController {
         return ResponseEntity.ok(grievanceDto);
     }
 
+    /**
+     * NEW: Public endpoint for the comment thread of a grievance, oldest first.
+     * @param page The page number to retrieve (defaults to 0).
+     * @param size The number of comments per page (defaults to 20, at most 100).
+     */
+    @GetMapping("/public/status/{trackingId}/comments")
+    public ResponseEntity<Page<GrievanceCommentDto>> getGrievanceComments(
+            @PathVariable String trackingId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(grievanceService.getCommentsByTrackingId(trackingId, page, size));
+    }
+
     /**
      * UPDATED: Secure endpoint for an admin to view grievances.
      * It now supports pagination to handle a large number of grievances efficiently.
@@ -62,6 +76,19 @@ public class GrievanceController {
         return ResponseEntity.ok(grievancesPage);
     }
 
+    /**
+     * Secure, opt-in keyset variant of getAllGrievances for deep scrolling.
+     * @param cursor The nextCursor of the previous slice (omit for the first slice).
+     * @param size The number of grievances per slice (defaults to 10, at most 100).
+     * @return A slice of grievances, newest first, with the cursor for the next slice.
+     */
+    @GetMapping("/admin/scroll")
+    public ResponseEntity<CursorPageDto<GrievanceDto>> scrollGrievances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(grievanceService.scrollGrievances(cursor, size));
+    }
+
     @PutMapping("/admin/{id}/status")
     public ResponseEntity<GrievanceDto> updateGrievanceStatus(@PathVariable Long id, @RequestBody Map<String, String> statusUpdate) {
         String status = statusUpdate.get("status");
@@ -72,6 +99,19 @@ public class GrievanceController {
         return ResponseEntity.ok(updatedGrievance);
     }
 
+    /**
+     * NEW: Secure endpoint for an admin to page through the comments of a grievance, oldest first.
+     * @param page The page number to retrieve (defaults to 0).
+     * @param size The number of comments per page (defaults to 20, at most 100).
+     */
+    @GetMapping("/admin/{grievanceId}/comments")
+    public ResponseEntity<Page<GrievanceCommentDto>> getComments(
+            @PathVariable Long grievanceId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(grievanceService.getComments(grievanceId, page, size));
+    }
+
     @PostMapping("/admin/{grievanceId}/comments")
     public ResponseEntity<GrievanceCommentDto> addComment(
             @PathVariable Long grievanceId,
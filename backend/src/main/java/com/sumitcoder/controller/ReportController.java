@@ -0,0 +1,49 @@
+package com.sumitcoder.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.sumitcoder.dto.VillageMonthlySummaryDto;
+import com.sumitcoder.service.MonthlySummaryService;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    /**
+     * SECURE endpoint returning the precomputed totals of one month, one row per village:
+     * families served, kg distributed, kg entitled and total deficit.
+     * @param year The year of the summary.
+     * @param month The month of the summary (1-12).
+     * @param village Restricts the result to one village (optional).
+     * @return The monthly totals per village.
+     */
+    @GetMapping("/monthly-summary")
+    public ResponseEntity<List<VillageMonthlySummaryDto>> getMonthlySummary(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) String village) {
+        if (month < 1 || month > 12) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(monthlySummaryService.getMonthlySummary(year, month, village));
+    }
+
+    /**
+     * SECURE endpoint to recompute the monthly totals from the raw records,
+     * for one year or (when year is omitted) for every year that has records.
+     * @return The number of summary rows written.
+     */
+    @PostMapping("/monthly-summary/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildMonthlySummary(@RequestParam(required = false) Integer year) {
+        int rows = (year != null) ? monthlySummaryService.rebuildYear(year) : monthlySummaryService.rebuildAll();
+        return ResponseEntity.ok(Map.of("summaryRows", rows));
+    }
+}
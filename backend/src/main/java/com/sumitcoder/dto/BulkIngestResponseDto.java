@@ -0,0 +1,34 @@
+package com.sumitcoder.dto;
+
+import java.util.List;
+
+/**
+ * Summary returned by the bulk ingestion endpoint, with one result per submitted row.
+ */
+public class BulkIngestResponseDto {
+
+    private int received;
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private List<BulkRecordResultDto> results;
+
+    public BulkIngestResponseDto(List<BulkRecordResultDto> results) {
+        this.results = results;
+        this.received = results.size();
+        this.created = (int) results.stream()
+                .filter(r -> BulkRecordResultDto.STATUS_CREATED.equals(r.getStatus()))
+                .count();
+        this.duplicates = (int) results.stream()
+                .filter(r -> BulkRecordResultDto.STATUS_DUPLICATE.equals(r.getStatus()))
+                .count();
+        this.rejected = this.received - this.created - this.duplicates;
+    }
+
+    // Getters
+    public int getReceived() { return received; }
+    public int getCreated() { return created; }
+    public int getDuplicates() { return duplicates; }
+    public int getRejected() { return rejected; }
+    public List<BulkRecordResultDto> getResults() { return results; }
+}
@@ -0,0 +1,43 @@
+package com.sumitcoder.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of a single row submitted to the bulk ingestion endpoint.
+ * The index refers to the position of the row in the submitted list.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRecordResultDto {
+
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_REJECTED = "REJECTED";
+    // The family already has a record for that month (stored earlier, or earlier in the same upload)
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+
+    private int index;
+    private String status;
+    private String contactNumber;
+    private Long familyId;
+    private String message;
+
+    public BulkRecordResultDto() {
+    }
+
+    public BulkRecordResultDto(int index, String status, String contactNumber) {
+        this.index = index;
+        this.status = status;
+        this.contactNumber = contactNumber;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getContactNumber() { return contactNumber; }
+    public void setContactNumber(String contactNumber) { this.contactNumber = contactNumber; }
+    public Long getFamilyId() { return familyId; }
+    public void setFamilyId(Long familyId) { this.familyId = familyId; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
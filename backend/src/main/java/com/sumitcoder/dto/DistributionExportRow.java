@@ -0,0 +1,55 @@
+package com.sumitcoder.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A flat, read-only view of one distribution record joined with its family.
+ * It is built directly by a JPQL constructor expression, so exported rows never
+ * enter the persistence context and the export uses the same memory however many rows it writes.
+ */
+public class DistributionExportRow {
+
+    private final Long id;
+    private final LocalDate distributionDate;
+    private final BigDecimal riceReceivedKg;
+    private BigDecimal entitlementKg;
+    private final Long familyId;
+    private final String uniqueFamilyId;
+    private final String familyHeadName;
+    private final String contactNumber;
+    private final String villageName;
+    private final Integer numMembers;
+    private BigDecimal deficitKg;
+
+    public DistributionExportRow(Long id, LocalDate distributionDate, BigDecimal riceReceivedKg,
+                                 BigDecimal entitlementKg, Long familyId,
+                                 String uniqueFamilyId, String familyHeadName, String contactNumber,
+                                 String villageName, Integer numMembers) {
+        this.id = id;
+        this.distributionDate = distributionDate;
+        this.riceReceivedKg = riceReceivedKg;
+        this.entitlementKg = entitlementKg;
+        this.familyId = familyId;
+        this.uniqueFamilyId = uniqueFamilyId;
+        this.familyHeadName = familyHeadName;
+        this.contactNumber = contactNumber;
+        this.villageName = villageName;
+        this.numMembers = numMembers;
+    }
+
+    // Getters (and setters for the fields calculated by the backend)
+    public Long getId() { return id; }
+    public LocalDate getDistributionDate() { return distributionDate; }
+    public BigDecimal getRiceReceivedKg() { return riceReceivedKg; }
+    public Long getFamilyId() { return familyId; }
+    public String getUniqueFamilyId() { return uniqueFamilyId; }
+    public String getFamilyHeadName() { return familyHeadName; }
+    public String getContactNumber() { return contactNumber; }
+    public String getVillageName() { return villageName; }
+    public Integer getNumMembers() { return numMembers; }
+    public BigDecimal getEntitlementKg() { return entitlementKg; }
+    public void setEntitlementKg(BigDecimal entitlementKg) { this.entitlementKg = entitlementKg; }
+    public BigDecimal getDeficitKg() { return deficitKg; }
+    public void setDeficitKg(BigDecimal deficitKg) { this.deficitKg = deficitKg; }
+}
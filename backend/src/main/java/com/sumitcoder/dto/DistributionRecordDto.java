@@ -41,6 +41,9 @@ public class DistributionRecordDto {
     // Nested object to hold family details for the admin view
     private FamilyDto family;
 
+    // NEW: Set when the family had already been recorded for this month and the existing record is returned
+    private Boolean alreadyRecorded;
+
     // NEW: Fields for the admin dashboard (calculated by the backend)
     private BigDecimal entitlementKg;
     private BigDecimal deficitKg;
@@ -63,6 +66,8 @@ public class DistributionRecordDto {
     public void setDistributionDate(LocalDate distributionDate) { this.distributionDate = distributionDate; }
     public String getUniqueFamilyId() { return uniqueFamilyId; }
     public void setUniqueFamilyId(String uniqueFamilyId) { this.uniqueFamilyId = uniqueFamilyId; }
+    public Boolean getAlreadyRecorded() { return alreadyRecorded; }
+    public void setAlreadyRecorded(Boolean alreadyRecorded) { this.alreadyRecorded = alreadyRecorded; }
     public FamilyDto getFamily() { return family; }
     public void setFamily(FamilyDto family) { this.family = family; }
     
@@ -1,11 +1,8 @@
 package com.sumitcoder.dto;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
-import java.util.List;
 
-@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GrievanceDto {
 
     private Long id;
@@ -21,11 +18,17 @@ public class GrievanceDto {
     
     private String imageUrl;
 
+    // NEW: Downscaled copy of the image for list views
+    private String thumbnailUrl;
+
+    // NEW: PENDING while the uploaded image is being processed, READY or REJECTED afterwards
+    private String imageStatus;
+
     private String status;
     private LocalDateTime createdAt;
-    
-    // NEW: Field to hold the list of comments
-    private List<GrievanceCommentDto> comments;
+
+    // Number of comments on the grievance; the comments themselves are paged through their own endpoint
+    private Long commentCount;
 
     // Getters and Setters
     public Long getId() { return id; }
@@ -40,13 +43,16 @@ public class GrievanceDto {
     public void setContactInfo(String contactInfo) { this.contactInfo = contactInfo; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+    public String getImageStatus() { return imageStatus; }
+    public void setImageStatus(String imageStatus) { this.imageStatus = imageStatus; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-    
-    // NEW: Getters and setters for the comments list
-    public List<GrievanceCommentDto> getComments() { return comments; }
-    public void setComments(List<GrievanceCommentDto> comments) { this.comments = comments; }
+
+    public Long getCommentCount() { return commentCount; }
+    public void setCommentCount(Long commentCount) { this.commentCount = commentCount; }
 }
 
@@ -0,0 +1,30 @@
+package com.sumitcoder.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Body of the counter's QR-scan fast path: the family comes from the scanned ration card.
+public class ScanRecordDto {
+
+    // The text of the family's ration card QR code
+    @NotBlank(message = "QR token is required")
+    private String token;
+
+    @NotNull(message = "Rice received is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Rice received must be greater than 0")
+    private BigDecimal riceReceivedKg;
+
+    // Optional; defaults to today
+    private LocalDate distributionDate;
+
+    // Getters and Setters
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+    public BigDecimal getRiceReceivedKg() { return riceReceivedKg; }
+    public void setRiceReceivedKg(BigDecimal riceReceivedKg) { this.riceReceivedKg = riceReceivedKg; }
+    public LocalDate getDistributionDate() { return distributionDate; }
+    public void setDistributionDate(LocalDate distributionDate) { this.distributionDate = distributionDate; }
+}
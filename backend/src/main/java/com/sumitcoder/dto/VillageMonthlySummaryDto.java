@@ -0,0 +1,30 @@
+package com.sumitcoder.dto;
+
+import java.math.BigDecimal;
+
+public class VillageMonthlySummaryDto {
+
+    private String villageName;
+    private int year;
+    private int month;
+    private long familiesServed;
+    private BigDecimal kgDistributed;
+    private BigDecimal kgEntitled;
+    private BigDecimal totalDeficitKg;
+
+    // Getters and Setters
+    public String getVillageName() { return villageName; }
+    public void setVillageName(String villageName) { this.villageName = villageName; }
+    public int getYear() { return year; }
+    public void setYear(int year) { this.year = year; }
+    public int getMonth() { return month; }
+    public void setMonth(int month) { this.month = month; }
+    public long getFamiliesServed() { return familiesServed; }
+    public void setFamiliesServed(long familiesServed) { this.familiesServed = familiesServed; }
+    public BigDecimal getKgDistributed() { return kgDistributed; }
+    public void setKgDistributed(BigDecimal kgDistributed) { this.kgDistributed = kgDistributed; }
+    public BigDecimal getKgEntitled() { return kgEntitled; }
+    public void setKgEntitled(BigDecimal kgEntitled) { this.kgEntitled = kgEntitled; }
+    public BigDecimal getTotalDeficitKg() { return totalDeficitKg; }
+    public void setTotalDeficitKg(BigDecimal totalDeficitKg) { this.totalDeficitKg = totalDeficitKg; }
+}
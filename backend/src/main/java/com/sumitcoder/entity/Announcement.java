@@ -2,9 +2,11 @@ package com.sumitcoder.entity;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_announcement_created_at_id", columnList = "created_at, id"))
 public class Announcement {
 
     @Id
@@ -22,6 +24,10 @@ public class Announcement {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Drives the Last-Modified header of the public feed. Null for rows that predate this column.
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -31,4 +37,6 @@ public class Announcement {
     public void setContent(String content) { this.content = content; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
@@ -9,7 +9,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "distribution_records")
+@Table(name = "distribution_records",
+        // A family is served at most once per monthly cycle.
+        uniqueConstraints = @UniqueConstraint(name = "uk_family_month", columnNames = { "family_id", "distribution_month" }))
 @Getter
 @Setter
 public class DistributionRecord {
@@ -29,10 +31,42 @@ public class DistributionRecord {
     @Column(nullable = false)
     private LocalDate distributionDate;
 
+    // First day of the distribution date's month, kept in step by setDistributionDate.
+    // Null only for rows written before the column existed (see DistributionMonthBackfillInitializer)
+    // and for older duplicates of a family and month, which the backfill leaves as they are.
+    @Column(name = "distribution_month")
+    private LocalDate distributionMonth;
+
+    // Repeat submissions for the same family and month that were absorbed by this record
+    @Column(nullable = false)
+    private Integer duplicateSubmissions = 0;
+
+    // Snapshot of the entitlement at the time of distribution (family size x rate then in force),
+    // so later changes to the family or to app.rice-per-person-kg do not rewrite old deficits.
+    // Nullable only for rows written before these columns existed; EntitlementBackfillInitializer fills them.
+    @Column(precision = 7, scale = 2)
+    private BigDecimal entitlementKg;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal ricePerPersonKg;
+
+    // The family's village at the time of distribution, which the monthly rollup is keyed on.
+    private String villageName;
+
     @Lob
     private String notes;
 
     @Column(updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    public void setDistributionDate(LocalDate distributionDate) {
+        this.distributionDate = distributionDate;
+        this.distributionMonth = monthOf(distributionDate);
+    }
+
+    // The distribution cycle a date belongs to
+    public static LocalDate monthOf(LocalDate date) {
+        return date == null ? null : date.withDayOfMonth(1);
+    }
 }
 
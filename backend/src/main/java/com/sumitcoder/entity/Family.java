@@ -28,6 +28,8 @@ public class Family {
 
     private String villageName;
 
+    // Assigned by FamilyIdGenerator when the family is created; printed on the ration card QR code
+    @Column(unique = true, length = 32)
     private String uniqueFamilyId;
 
     @Column(updatable = false)
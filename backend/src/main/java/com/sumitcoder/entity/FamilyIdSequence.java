@@ -0,0 +1,25 @@
+package com.sumitcoder.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * High-water mark of the uniqueFamilyId sequence of one prefix.
+ * FamilyIdGenerator reserves ids from it in blocks with an atomic upsert, so every
+ * application instance hands out its own range and never has to check for collisions.
+ */
+@Entity
+@Table(name = "family_id_sequences")
+@Getter
+@Setter
+public class FamilyIdSequence {
+
+    @Id
+    @Column(length = 8)
+    private String prefix;
+
+    // The highest sequence value reserved so far for this prefix
+    @Column(nullable = false)
+    private Long lastAllocated;
+}
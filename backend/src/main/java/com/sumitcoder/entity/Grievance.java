@@ -7,8 +7,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_grievance_created_at_id", columnList = "created_at, id"))
 public class Grievance {
 
+    // Lifecycle of an attached image. Null for grievances without an image and for rows that predate the pipeline.
+    public static final String IMAGE_PENDING = "PENDING";
+    public static final String IMAGE_READY = "READY";
+    public static final String IMAGE_REJECTED = "REJECTED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,16 +31,27 @@ public class Grievance {
 
     private String contactInfo;
 
+    // While the image is PENDING this is the name of the staged upload; once READY, the stored file.
     private String imageFilename; 
 
+    private String thumbnailFilename;
+
+    @Column(length = 16)
+    private String imageStatus;
+
+    // SHA-256 of the stored image, hex encoded.
+    @Column(length = 64)
+    private String imageContentHash;
+
     @Column(nullable = false)
     private String status = "New";
 
     @CreationTimestamp
     private LocalDateTime createdAt;
 
-    // NEW: Relationship to store all comments for this grievance
-    @OneToMany(mappedBy = "grievance", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // NEW: Relationship to store all comments for this grievance.
+    // Lazy: list views only show a comment count, and threads are paged through GrievanceCommentRepository.
+    @OneToMany(mappedBy = "grievance", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("createdAt ASC") // Show oldest comments first
     private List<GrievanceComment> comments = new ArrayList<>();
 
@@ -51,6 +68,12 @@ public class Grievance {
     public void setContactInfo(String contactInfo) { this.contactInfo = contactInfo; }
     public String getImageFilename() { return imageFilename; }
     public void setImageFilename(String imageFilename) { this.imageFilename = imageFilename; }
+    public String getThumbnailFilename() { return thumbnailFilename; }
+    public void setThumbnailFilename(String thumbnailFilename) { this.thumbnailFilename = thumbnailFilename; }
+    public String getImageStatus() { return imageStatus; }
+    public void setImageStatus(String imageStatus) { this.imageStatus = imageStatus; }
+    public String getImageContentHash() { return imageContentHash; }
+    public void setImageContentHash(String imageContentHash) { this.imageContentHash = imageContentHash; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     public LocalDateTime getCreatedAt() { return createdAt; }
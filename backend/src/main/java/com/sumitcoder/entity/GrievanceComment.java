@@ -5,6 +5,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_grievance_comment_thread", columnList = "grievance_id, created_at, id"))
 public class GrievanceComment {
 
     @Id
@@ -0,0 +1,40 @@
+package com.sumitcoder.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * An Idempotency-Key used on a public POST endpoint, with the response to replay to its retries.
+ * Only used when app.idempotency.store=jdbc; JdbcIdempotencyStore reads and writes it with plain SQL.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at"))
+@Getter
+@Setter
+public class IdempotencyKey {
+
+    // The endpoint path and the client's key
+    @Id
+    @Column(name = "idempotency_key", length = 320)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a reused key with a different body is refused
+    @Column(length = 64)
+    private String requestDigest;
+
+    // Null while the first request is still being processed
+    private Integer responseStatus;
+
+    private String contentType;
+
+    @Lob
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,46 @@
+package com.sumitcoder.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+/**
+ * Running totals of distribution records per village and calendar month.
+ * Rows are kept up to date with atomic upserts as records are created, so reports
+ * can read them directly instead of scanning distribution_records.
+ */
+@Entity
+@Table(name = "village_monthly_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_village_month",
+                columnNames = { "village_name", "summary_year", "summary_month" }))
+@Getter
+@Setter
+public class VillageMonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "village_name", nullable = false)
+    private String villageName;
+
+    @Column(name = "summary_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "summary_month", nullable = false)
+    private Integer month;
+
+    // One distribution record counts as one family served.
+    @Column(nullable = false)
+    private Long familiesServed;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal kgDistributed;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal kgEntitled;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalDeficitKg;
+}
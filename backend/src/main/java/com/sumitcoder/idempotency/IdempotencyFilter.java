@@ -0,0 +1,257 @@
+package com.sumitcoder.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Makes retried POSTs to the public endpoints in app.idempotency.paths safe. A request that
+ * carries an Idempotency-Key header is processed once; a retry with the same key gets the
+ * first response again (marked Idempotent-Replayed: true), and a retry that arrives while the
+ * first request is still running waits for it instead of running a second time. The key is
+ * claimed with a SHA-256 digest of the body, and a retry whose body differs gets 422 instead of
+ * someone else's response. Only successful responses are kept, so after an error the client
+ * can retry for real.
+ * Requests without the header are not affected. It runs after Spring Security.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Value("${app.idempotency.paths:/api/records/public,/api/records/public/scan,/api/grievances/public}")
+    private List<String> paths;
+
+    @Value("${app.idempotency.wait-timeout:30s}")
+    private Duration waitTimeout;
+
+    // Larger responses are not kept, and their retries run again
+    @Value("${app.idempotency.max-response-size:64KB}")
+    private DataSize maxResponseSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !paths.contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+        // Keys are scoped to the endpoint, so a key reused elsewhere never replays another endpoint's response
+        String scopedKey = pathOf(request) + " " + key;
+
+        String requestDigest;
+        if (isMultipart(request)) {
+            // Parsed here by the container, which keeps the parts for DispatcherServlet
+            try {
+                requestDigest = digestOf(request.getParts());
+            } catch (IllegalStateException | IOException | ServletException ex) {
+                // An oversized or malformed upload is rejected the usual way when the controller parses it
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } else {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            requestDigest = digestOf(cached.body);
+            request = cached;
+        }
+
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        try {
+            while (!idempotencyStore.tryClaim(scopedKey, requestDigest)) {
+                String claimedDigest = idempotencyStore.getRequestDigest(scopedKey);
+                if (claimedDigest != null && !claimedDigest.equals(requestDigest)) {
+                    writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                            "This Idempotency-Key was already used with a different request body.");
+                    return;
+                }
+                StoredResponse stored = idempotencyStore.awaitResponse(scopedKey, Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+                if (stored != null) {
+                    replay(stored, response);
+                    return;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, waitTimeout.toSeconds())));
+                    writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed.");
+                    return;
+                }
+                // The first request failed and released the key: this one processes it instead
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the first request.");
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] body = wrapper.getContentAsByteArray();
+            if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful() && body.length <= maxResponseSize.toBytes()) {
+                idempotencyStore.complete(scopedKey, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(), body));
+                completed = true;
+            }
+            wrapper.copyBodyToResponse();
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(scopedKey);
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    private String digestOf(Collection<Part> parts) throws IOException {
+        MessageDigest digest = sha256();
+        for (Part part : parts) {
+            update(digest, part.getName().getBytes(StandardCharsets.UTF_8));
+            update(digest, String.valueOf(part.getSubmittedFileName()).getBytes(StandardCharsets.UTF_8));
+            update(digest, String.valueOf(part.getContentType()).getBytes(StandardCharsets.UTF_8));
+            // Uploads are streamed through the digest rather than read into memory
+            digest.update(ByteBuffer.allocate(Long.BYTES).putLong(part.getSize()).array());
+            try (InputStream content = new DigestInputStream(part.getInputStream(), digest)) {
+                content.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String digestOf(byte[] body) {
+        return HexFormat.of().formatHex(sha256().digest(body));
+    }
+
+    // Each value is prefixed with its length, so moving bytes between fields changes the digest
+    private void update(MessageDigest digest, byte[] value) {
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(value.length).array());
+        digest.update(value);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    // Written directly: sendError would forward to /error, which Spring Security does not permit
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    private String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // The request with its body read up front, so it can be digested and then read again by the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
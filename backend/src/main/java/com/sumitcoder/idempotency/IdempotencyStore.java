@@ -0,0 +1,42 @@
+package com.sumitcoder.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Remembers which Idempotency-Keys have been used and the responses they produced.
+ * A key is first claimed by the request that will process it, together with a digest of its
+ * body; retries with the same key and body wait for that request and get its response instead
+ * of running again.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key for the calling request.
+     * @param requestDigest A digest of the request body, kept with the key until it expires.
+     * @return true if no request holds the key, so the caller must process the request and then
+     *         call complete or release; false if another request already holds or completed it.
+     */
+    boolean tryClaim(String key, String requestDigest);
+
+    /**
+     * @return The request digest a key was claimed with, or null if no request holds the key.
+     */
+    String getRequestDigest(String key);
+
+    /**
+     * Waits for the request holding a key to finish.
+     * @return Its stored response, or null if that request failed (the key was released and may be
+     *         claimed again) or the timeout elapsed first.
+     */
+    StoredResponse awaitResponse(String key, Duration timeout) throws InterruptedException;
+
+    /**
+     * Stores the response of a claimed key, to be replayed until the key expires.
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Gives up a claimed key without a response, so a retry processes the request again.
+     */
+    void release(String key);
+}
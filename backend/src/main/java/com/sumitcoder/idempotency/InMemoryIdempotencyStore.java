@@ -0,0 +1,89 @@
+package com.sumitcoder.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default IdempotencyStore: keys and responses live in a Caffeine cache of this instance,
+ * bounded by the total size of the stored responses (app.idempotency.memory.max-size) and expired
+ * app.idempotency.ttl after they were last written. Keys are not shared between instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // Rough per-entry cost of the key, the latch and the cache's own bookkeeping
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.memory.max-size:64MB}") DataSize maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> ENTRY_OVERHEAD_BYTES + key.length() + entry.bodyLength())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public boolean tryClaim(String key, String requestDigest) {
+        return entries.asMap().putIfAbsent(key, new Entry(requestDigest)) == null;
+    }
+
+    @Override
+    public String getRequestDigest(String key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.requestDigest;
+    }
+
+    @Override
+    public StoredResponse awaitResponse(String key, Duration timeout) throws InterruptedException {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || !entry.done.await(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+        return entry.response;
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        Entry entry = entries.asMap().getOrDefault(key, new Entry(null));
+        entry.response = response;
+        // Written again so the cache re-weighs the entry with its response
+        entries.put(key, entry);
+        entry.done.countDown();
+    }
+
+    @Override
+    public void release(String key) {
+        Entry entry = entries.asMap().remove(key);
+        if (entry != null) {
+            entry.done.countDown();
+        }
+    }
+
+    // A claimed key: done opens when the request holding it completes or releases it.
+    private static final class Entry {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final String requestDigest;
+        private volatile StoredResponse response;
+
+        private Entry(String requestDigest) {
+            this.requestDigest = requestDigest;
+        }
+
+        private int bodyLength() {
+            StoredResponse stored = response;
+            return stored == null ? 0 : stored.body().length;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sumitcoder.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * IdempotencyStore shared by all instances through the idempotency_keys table
+ * (app.idempotency.store=jdbc). A claim is a plain INSERT that only one request can win on the
+ * primary key. It is a lease of app.idempotency.jdbc.lease, so a key held by an instance that
+ * died mid-request can be claimed again once the lease runs out. Waiting requests poll the row.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration ttl;
+
+    private final Duration lease;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                @Value("${app.idempotency.jdbc.lease:2m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lease = lease;
+    }
+
+    @Override
+    public boolean tryClaim(String key, String requestDigest) {
+        Instant now = Instant.now();
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?",
+                key, Timestamp.from(now));
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, request_digest, created_at, expires_at) "
+                            + "VALUES (?, ?, ?, ?)",
+                    key, requestDigest, Timestamp.from(now), Timestamp.from(now.plus(lease)));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public String getRequestDigest(String key) {
+        List<String> digests = jdbcTemplate.queryForList(
+                "SELECT request_digest FROM idempotency_keys WHERE idempotency_key = ?", String.class, key);
+        return digests.isEmpty() ? null : digests.get(0);
+    }
+
+    @Override
+    public StoredResponse awaitResponse(String key, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            List<Optional<StoredResponse>> rows = jdbcTemplate.query(
+                    "SELECT response_status, content_type, response_body FROM idempotency_keys WHERE idempotency_key = ?",
+                    (rs, rowNum) -> {
+                        int status = rs.getInt("response_status");
+                        return rs.wasNull()
+                                ? Optional.<StoredResponse>empty()
+                                : Optional.of(new StoredResponse(status, rs.getString("content_type"), rs.getBytes("response_body")));
+                    },
+                    key);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            if (rows.get(0).isPresent()) {
+                return rows.get(0).get();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response_status = ?, content_type = ?, response_body = ?, expires_at = ? "
+                        + "WHERE idempotency_key = ?",
+                response.status(), response.contentType(), response.body(), Timestamp.from(Instant.now().plus(ttl)), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND response_status IS NULL", key);
+    }
+
+    /**
+     * Deletes expired keys, which also keeps the table bounded.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.jdbc.cleanup-interval:10m}")
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", Timestamp.from(Instant.now()));
+    }
+}
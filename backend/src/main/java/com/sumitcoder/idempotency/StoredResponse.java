@@ -0,0 +1,7 @@
+package com.sumitcoder.idempotency;
+
+/**
+ * The response of a request made with an Idempotency-Key, as replayed to its retries.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,53 @@
+package com.sumitcoder.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the REST controllers and the *Service classes, as the
+ * app.controller.invocations and app.service.invocations timers (tags class, method, exception),
+ * with percentile histograms for the Prometheus endpoint. Repository calls are timed by Spring
+ * Data itself (spring.data.repository.invocations).
+ */
+@Aspect
+@Component
+public class MethodTimingAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *) && execution(public * *(..))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("app.controller.invocations", joinPoint);
+    }
+
+    @Around("execution(public * com.sumitcoder.service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("app.service.invocations", joinPoint);
+    }
+
+    // --- Helper Methods ---
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sumitcoder.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of SQL statements each request sends, as the http.server.requests.sql.statements
+ * distribution tagged with the request's method and URI template (as in http.server.requests).
+ * It runs first, so the statements of authentication and the other filters are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            // Requests that never reached a handler (rejected, static resources, 404s) have no template
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (uri != null) {
+                DistributionSummary.builder("http.server.requests.sql.statements")
+                        .description("SQL statements sent while serving a request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri.toString())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(statements);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.sumitcoder.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of public requests being handled at once. The limit sits below the size of
+ * the Hikari pool, so a burst of public traffic cannot take every connection and queue up for
+ * connectionTimeout; the requests beyond it wait at most app.load-shedding.max-wait for a slot
+ * and then get 503 with Retry-After. Admin endpoints are never shed.
+ * It is an interceptor rather than a filter, so a slot is only held while the controller runs:
+ * not while a multipart body is still being received (DispatcherServlet parses it first), and
+ * not while an idempotent retry waits in IdempotencyFilter for the first request to finish.
+ */
+@Component
+public class LoadSheddingInterceptor implements HandlerInterceptor {
+
+    private static final String PUBLIC_PATHS = "/api/**/public/**";
+
+    private static final String PERMIT_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".PERMIT";
+
+    private final boolean enabled;
+
+    private final int maxConcurrent;
+
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+
+    private final Counter shed;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * @param maxConcurrent The configured limit, or null to leave reservedConnections of the pool to admin requests.
+     * @param poolSize The Hikari maximum-pool-size the limit has to stay below.
+     */
+    public LoadSheddingInterceptor(@Value("${app.load-shedding.enabled:true}") boolean enabled,
+                                   @Value("${app.load-shedding.max-concurrent:#{null}}") Integer maxConcurrent,
+                                   @Value("${app.load-shedding.reserved-connections:4}") int reservedConnections,
+                                   @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                   @Value("${app.load-shedding.max-wait:50ms}") Duration maxWait,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxConcurrent = enabled ? maxConcurrentFor(maxConcurrent, reservedConnections, poolSize) : 0;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(this.maxConcurrent);
+        this.shed = Counter.builder("http.server.requests.rejected")
+                .description("Requests rejected before reaching a controller")
+                .tag("reason", "load-shed")
+                .tag("endpoint", "public")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.public.in-flight", this, LoadSheddingInterceptor::inFlight)
+                .description("Public requests currently being handled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The number of public requests handled at once: the configured value, or the pool size minus
+     * the reserved connections (at least one). Fails when that would not leave a connection free.
+     */
+    static int maxConcurrentFor(Integer configured, int reservedConnections, int poolSize) {
+        int limit = configured != null ? configured : Math.max(1, poolSize - reservedConnections);
+        if (limit < 1 || limit >= poolSize) {
+            throw new IllegalStateException("app.load-shedding.max-concurrent (" + limit + ") must be at least 1 and below "
+                    + "spring.datasource.hikari.maximum-pool-size (" + poolSize + "); disable load shedding for smaller pools");
+        }
+        return limit;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!enabled
+                || request.getDispatcherType() != DispatcherType.REQUEST
+                || "OPTIONS".equals(request.getMethod())
+                || !pathMatcher.match(PUBLIC_PATHS, request.getRequestURI().substring(request.getContextPath().length()))) {
+            return true;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shed.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"The server is busy. Please try again shortly.\"}");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private double inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
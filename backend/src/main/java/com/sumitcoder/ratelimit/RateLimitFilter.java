@@ -0,0 +1,103 @@
+package com.sumitcoder.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token-bucket rate limiting of the public endpoints, configured per endpoint by
+ * app.rate-limit.rules. The first rule whose path matches applies; other requests pass through.
+ * Clients are told apart by their address (behind a proxy, see server.forward-headers-strategy).
+ * A client over its limit gets 429 with Retry-After, counted in the http.server.requests.rejected
+ * metric. It runs right after Spring Security, so rejections still carry the CORS headers.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+
+    private final List<LimitedEndpoint> endpoints;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.endpoints = properties.getRules().stream()
+                .map(rule -> new LimitedEndpoint(rule, properties.getMaxClients(), meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedEndpoint endpoint : endpoints) {
+            if (pathMatcher.match(endpoint.rule.getPath(), path)) {
+                long waitNanos = endpoint.bucketFor(request.getRemoteAddr()).tryConsume(System.nanoTime());
+                if (waitNanos > 0) {
+                    endpoint.rejected.increment();
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\"}");
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // One configured rule with the buckets of its clients
+    private static final class LimitedEndpoint {
+        private final RateLimitProperties.Rule rule;
+        private final double tokensPerNano;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejected;
+
+        private LimitedEndpoint(RateLimitProperties.Rule rule, long maxClients, MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.tokensPerNano = rule.getRefillPerMinute() / TimeUnit.MINUTES.toNanos(1);
+            // A bucket left idle long enough to refill completely is the same as a new one, so it can be dropped
+            Duration refillTime = Duration.ofNanos((long) Math.ceil(rule.getCapacity() / tokensPerNano));
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxClients)
+                    .expireAfterAccess(refillTime)
+                    .build();
+            this.rejected = Counter.builder("http.server.requests.rejected")
+                    .description("Requests rejected before reaching a controller")
+                    .tag("reason", "rate-limit")
+                    .tag("endpoint", rule.getName())
+                    .register(meterRegistry);
+        }
+
+        private TokenBucket bucketFor(String client) {
+            return buckets.get(client, c -> new TokenBucket(rule.getCapacity(), tokensPerNano, System.nanoTime()));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sumitcoder.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-client rate limits of the public endpoints (app.rate-limit.*). Each rule gives the clients
+ * of the matching paths a bucket of capacity requests that refills at refillPerMinute.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on the number of clients tracked per rule; idle clients are dropped first
+    private long maxClients = 100_000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public static class Rule {
+
+        // Used in metrics
+        private String name;
+
+        // Ant-style path pattern, e.g. /api/families/public/by-*/**
+        private String path;
+
+        // Requests a client may make in a burst
+        private int capacity;
+
+        // Sustained requests per minute per client
+        private double refillPerMinute;
+
+        // Getters and Setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public double getRefillPerMinute() { return refillPerMinute; }
+        public void setRefillPerMinute(double refillPerMinute) { this.refillPerMinute = refillPerMinute; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public long getMaxClients() { return maxClients; }
+    public void setMaxClients(long maxClients) { this.maxClients = maxClients; }
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+}
@@ -0,0 +1,45 @@
+package com.sumitcoder.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free token bucket: it holds up to capacity tokens and regains them continuously at a
+ * fixed rate. The state is one immutable value swapped with compare-and-set, so concurrent
+ * requests from the same client never block each other.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(double capacity, double tokensPerNano, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerNano;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Takes one token if there is one.
+     * @param nowNanos The current System.nanoTime().
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available.
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long now = Math.max(nowNanos, current.updatedAt());
+            double tokens = Math.min(capacity, current.tokens() + (now - current.updatedAt()) * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
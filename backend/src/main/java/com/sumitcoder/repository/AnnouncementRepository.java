@@ -1,8 +1,12 @@
 package com.sumitcoder.repository;
 
 import com.sumitcoder.entity.Announcement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
@@ -15,5 +19,11 @@ public interface AnnouncementRepository extends JpaRepository<Announcement, Long
      * @return A page of announcements.
      */
     Page<Announcement> findAll(Pageable pageable);
+
+    /**
+     * Keyset (seek) variant of findAll: continues after the last (createdAt, id) seen
+     * instead of skipping an offset, and does not run a COUNT(*).
+     */
+    Window<Announcement> findBy(ScrollPosition position, Limit limit, Sort sort);
 }
 
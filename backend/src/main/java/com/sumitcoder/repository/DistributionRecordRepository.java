@@ -1,22 +1,147 @@
 package com.sumitcoder.repository;
 
+import com.sumitcoder.dto.DistributionExportRow;
 import com.sumitcoder.entity.DistributionRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface DistributionRecordRepository extends JpaRepository<DistributionRecord, Long> {
 
+    // The list and history queries fetch the family in the same SELECT (via @EntityGraph),
+    // because every record is converted together with its family details.
+    // Without this, each row triggers its own lazy SELECT of the family (N+1 queries).
+
+    @EntityGraph(attributePaths = "family")
     List<DistributionRecord> findByFamilyIdOrderByIdDesc(Long familyId);
 
+    @EntityGraph(attributePaths = "family")
+    Optional<DistributionRecord> findByFamilyIdAndDistributionMonth(Long familyId, LocalDate distributionMonth);
+
+    /**
+     * Records a distribution unless the family already has one for that month, in which case the
+     * existing record only counts the repeat. One atomic statement against uk_family_month, so
+     * concurrent counters submitting the same family never race or fail.
+     * @return 1 if the record was inserted, 2 if the family and month were already recorded.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO distribution_records (family_id, rice_received_kg, distribution_date, "
+            + "distribution_month, entitlement_kg, rice_per_person_kg, village_name, duplicate_submissions, created_at) "
+            + "VALUES (:familyId, :riceReceivedKg, :distributionDate, :distributionMonth, :entitlementKg, :ricePerPersonKg, "
+            + ":villageName, 0, :createdAt) "
+            + "ON DUPLICATE KEY UPDATE duplicate_submissions = duplicate_submissions + 1")
+    int insertUnlessRecordedThisMonth(@Param("familyId") Long familyId, @Param("riceReceivedKg") BigDecimal riceReceivedKg,
+                                      @Param("distributionDate") LocalDate distributionDate,
+                                      @Param("distributionMonth") LocalDate distributionMonth,
+                                      @Param("entitlementKg") BigDecimal entitlementKg,
+                                      @Param("ricePerPersonKg") BigDecimal ricePerPersonKg,
+                                      @Param("villageName") String villageName, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Which of the given families already have a record in which of the given months (used by bulk ingestion).
+     */
+    @Query("SELECT r.family.id AS familyId, r.distributionMonth AS distributionMonth FROM DistributionRecord r "
+            + "WHERE r.family.id IN :familyIds AND r.distributionMonth IN :months")
+    List<FamilyMonth> findRecordedMonths(@Param("familyIds") Collection<Long> familyIds,
+                                         @Param("months") Collection<LocalDate> months);
+
+    /**
+     * Which of the given families have a record in which of the given months that was submitted more
+     * than once. Bulk ingestion uses it to find the rows its batch merged into a concurrently stored record.
+     */
+    @Query("SELECT r.family.id AS familyId, r.distributionMonth AS distributionMonth FROM DistributionRecord r "
+            + "WHERE r.family.id IN :familyIds AND r.distributionMonth IN :months AND r.duplicateSubmissions > 0")
+    List<FamilyMonth> findRepeatedMonths(@Param("familyIds") Collection<Long> familyIds,
+                                         @Param("months") Collection<LocalDate> months);
+
+    interface FamilyMonth {
+        Long getFamilyId();
+        LocalDate getDistributionMonth();
+    }
+
     // This method is for getting all records with pagination
+    @EntityGraph(attributePaths = "family")
     Page<DistributionRecord> findAll(Pageable pageable);
 
     // This single method can be used for filtering by any date range
     // (e.g., a specific month or an entire year)
+    @EntityGraph(attributePaths = "family")
     Page<DistributionRecord> findAllByDistributionDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
-    
+
+    /**
+     * Backfills the entitlement snapshot of records written before it existed, for one id range.
+     * The range keeps each UPDATE (and its row locks) small on large tables.
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE distribution_records SET "
+            + "entitlement_kg = (SELECT f.num_members * :rate FROM families f WHERE f.id = distribution_records.family_id), "
+            + "village_name = (SELECT f.village_name FROM families f WHERE f.id = distribution_records.family_id), "
+            + "rice_per_person_kg = :rate "
+            + "WHERE entitlement_kg IS NULL AND id BETWEEN :fromId AND :toId")
+    int backfillEntitlement(@Param("rate") BigDecimal ricePerPersonKg, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT MIN(r.id) FROM DistributionRecord r WHERE r.entitlementKg IS NULL")
+    Long findFirstIdWithoutEntitlement();
+
+    @Query("SELECT MAX(r.id) FROM DistributionRecord r")
+    Long findMaxId();
+
+    // Records written before distribution_month existed, one id range at a time (used to backfill)
+    List<DistributionRecord> findByDistributionMonthIsNullAndIdBetweenOrderById(Long fromId, Long toId);
+
+    // The next ids still without a distribution month, so the backfill never walks ranges that have none
+    @Query("SELECT r.id FROM DistributionRecord r WHERE r.distributionMonth IS NULL AND r.id > :lastId ORDER BY r.id")
+    List<Long> findIdsWithoutDistributionMonthAfter(@Param("lastId") long lastId, Limit limit);
+
+    @Query("SELECT MIN(r.distributionDate) FROM DistributionRecord r")
+    LocalDate findEarliestDistributionDate();
+
+    @Query("SELECT MAX(r.distributionDate) FROM DistributionRecord r")
+    LocalDate findLatestDistributionDate();
+
+    /**
+     * Keyset (seek) variants of the two list queries above. They continue from the sort keys
+     * of the last row seen instead of an offset, and skip the COUNT(*), so every slice costs
+     * the same regardless of how deep the client has scrolled.
+     */
+    @EntityGraph(attributePaths = "family")
+    Window<DistributionRecord> findBy(ScrollPosition position, Limit limit, Sort sort);
+
+    @EntityGraph(attributePaths = "family")
+    Window<DistributionRecord> findByDistributionDateBetween(LocalDate startDate, LocalDate endDate,
+                                                             ScrollPosition position, Limit limit, Sort sort);
+
+    /**
+     * Streams every record in a date range, joined with its family, for the export endpoint.
+     * Rows are read through a forward-only cursor in chunks of the fetch size (MySQL needs
+     * useCursorFetch=true for this), so callers must consume the stream inside a transaction
+     * and close it when done.
+     */
+    @Query("SELECT new com.sumitcoder.dto.DistributionExportRow(r.id, r.distributionDate, r.riceReceivedKg, "
+            + "r.entitlementKg, f.id, f.uniqueFamilyId, f.familyHeadName, f.contactNumber, f.villageName, f.numMembers) "
+            + "FROM DistributionRecord r JOIN r.family f "
+            + "WHERE r.distributionDate BETWEEN :startDate AND :endDate ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<DistributionExportRow> streamExportRows(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
 
@@ -0,0 +1,24 @@
+package com.sumitcoder.repository;
+
+import com.sumitcoder.entity.FamilyIdSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface FamilyIdSequenceRepository extends JpaRepository<FamilyIdSequence, String> {
+
+    /**
+     * Reserves the next blockSize values of a prefix, creating its row on first use.
+     * The row stays locked until the transaction commits, so findLastAllocated in the same
+     * transaction returns the end of the block this call reserved.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO family_id_sequences (prefix, last_allocated) "
+            + "VALUES (:prefix, :blockSize) "
+            + "ON DUPLICATE KEY UPDATE last_allocated = last_allocated + :blockSize")
+    void reserveBlock(@Param("prefix") String prefix, @Param("blockSize") long blockSize);
+
+    @Query("SELECT s.lastAllocated FROM FamilyIdSequence s WHERE s.prefix = :prefix")
+    Long findLastAllocated(@Param("prefix") String prefix);
+}
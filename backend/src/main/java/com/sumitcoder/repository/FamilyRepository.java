@@ -1,17 +1,70 @@
 package com.sumitcoder.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sumitcoder.entity.Family;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface FamilyRepository extends JpaRepository<Family, Long> {
     
     Optional<Family> findByContactNumber(String contactNumber);
 
+    Optional<Family> findByUniqueFamilyId(String uniqueFamilyId);
+
+    /**
+     * Creates the family of a contact number, or updates its details if it already exists, in one
+     * atomic statement, so two counters registering the same new family never collide on the unique
+     * contact number. The row stays locked until the transaction commits, which also serialises
+     * everything else the caller does for this family in that transaction. uniqueFamilyId is only
+     * filled in when the family has none yet.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO families (family_head_name, contact_number, num_members, village_name, created_at, unique_family_id) "
+            + "VALUES (:familyHeadName, :contactNumber, :numMembers, :villageName, :createdAt, :uniqueFamilyId) "
+            + "ON DUPLICATE KEY UPDATE family_head_name = :familyHeadName, num_members = :numMembers, village_name = :villageName, "
+            + "unique_family_id = COALESCE(unique_family_id, :uniqueFamilyId)")
+    int upsertFamily(@Param("contactNumber") String contactNumber, @Param("familyHeadName") String familyHeadName,
+                     @Param("numMembers") int numMembers, @Param("villageName") String villageName,
+                     @Param("createdAt") LocalDateTime createdAt, @Param("uniqueFamilyId") String uniqueFamilyId);
+
+    boolean existsByContactNumberAndUniqueFamilyIdIsNotNull(String contactNumber);
+
+    /**
+     * Which of the given contact numbers belong to a family that already has a uniqueFamilyId
+     * (used by bulk ingestion to draw ids only for the families that still need one).
+     */
+    @Query("SELECT f.contactNumber FROM Family f WHERE f.contactNumber IN :contactNumbers AND f.uniqueFamilyId IS NOT NULL")
+    List<String> findContactNumbersWithUniqueFamilyId(@Param("contactNumbers") Collection<String> contactNumbers);
+
+    /**
+     * Families created before uniqueFamilyId was assigned, one id range at a time (used to backfill).
+     */
+    List<Family> findByUniqueFamilyIdIsNullAndIdBetween(Long fromId, Long toId);
+
+    @Query("SELECT MIN(f.id) FROM Family f WHERE f.uniqueFamilyId IS NULL")
+    Long findFirstIdWithoutUniqueFamilyId();
+
+    @Query("SELECT MAX(f.id) FROM Family f")
+    Long findMaxId();
+
+    /**
+     * Set-based lookup used by bulk ingestion to resolve many families in one query.
+     * @param contactNumbers The contact numbers to look up.
+     * @return The families that already exist for those contact numbers.
+     */
+    List<Family> findAllByContactNumberIn(Collection<String> contactNumbers);
+
     /**
      * UPDATED: This method now finds all families and returns them as a paginated result.
      * The sorting will be handled by the Pageable object passed from the service layer.
@@ -19,5 +72,12 @@ public interface FamilyRepository extends JpaRepository<Family, Long> {
      * @return A page of families.
      */
     Page<Family> findAll(Pageable pageable);
+
+    /**
+     * Families to print ration card QR codes for, capped by the caller.
+     */
+    List<Family> findByVillageNameIgnoreCase(String villageName, Sort sort, Limit limit);
+
+    List<Family> findBy(Sort sort, Limit limit);
 }
 
@@ -1,7 +1,31 @@
 package com.sumitcoder.repository;
 
 import com.sumitcoder.entity.GrievanceComment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 
 public interface GrievanceCommentRepository extends JpaRepository<GrievanceComment, Long> {
+
+    /** One grievance's comment thread, a page at a time. */
+    Page<GrievanceComment> findByGrievanceId(Long grievanceId, Pageable pageable);
+
+    long countByGrievanceId(Long grievanceId);
+
+    /**
+     * Comment counts for a page of grievances in a single grouped query.
+     * Grievances without comments are absent from the result.
+     */
+    @Query("SELECT c.grievance.id AS grievanceId, COUNT(c) AS commentCount FROM GrievanceComment c " +
+           "WHERE c.grievance.id IN :grievanceIds GROUP BY c.grievance.id")
+    List<CommentCount> countByGrievanceIds(@Param("grievanceIds") Collection<Long> grievanceIds);
+
+    interface CommentCount {
+        Long getGrievanceId();
+        long getCommentCount();
+    }
 }
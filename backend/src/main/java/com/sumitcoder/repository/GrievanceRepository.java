@@ -1,10 +1,19 @@
 package com.sumitcoder.repository;
 
 import com.sumitcoder.entity.Grievance;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface GrievanceRepository extends JpaRepository<Grievance, Long> {
@@ -21,5 +30,35 @@ public interface GrievanceRepository extends JpaRepository<Grievance, Long> {
      * @return A page of grievances.
      */
     Page<Grievance> findAll(Pageable pageable);
+
+    /**
+     * Keyset (seek) variant of findAll: continues after the last (createdAt, id) seen
+     * instead of skipping an offset, and does not run a COUNT(*).
+     */
+    Window<Grievance> findBy(ScrollPosition position, Limit limit, Sort sort);
+
+    List<Grievance> findByImageStatus(String imageStatus);
+
+    // Every file name still referenced by a grievance (stored images, thumbnails and staged uploads).
+    @Query("SELECT DISTINCT g.imageFilename FROM Grievance g WHERE g.imageFilename IS NOT NULL")
+    List<String> findReferencedImageFilenames();
+
+    @Query("SELECT DISTINCT g.thumbnailFilename FROM Grievance g WHERE g.thumbnailFilename IS NOT NULL")
+    List<String> findReferencedThumbnailFilenames();
+
+    /**
+     * Records the outcome of background image processing without loading the grievance.
+     * Only a PENDING image is updated, so a late or repeated run cannot overwrite a finished one.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Grievance g SET g.imageStatus = :imageStatus, g.imageFilename = :imageFilename, " +
+           "g.thumbnailFilename = :thumbnailFilename, g.imageContentHash = :imageContentHash " +
+           "WHERE g.id = :id AND g.imageStatus = 'PENDING'")
+    int completeImageProcessing(@Param("id") Long id,
+                                @Param("imageStatus") String imageStatus,
+                                @Param("imageFilename") String imageFilename,
+                                @Param("thumbnailFilename") String thumbnailFilename,
+                                @Param("imageContentHash") String imageContentHash);
 }
 
@@ -0,0 +1,53 @@
+package com.sumitcoder.repository;
+
+import com.sumitcoder.entity.VillageMonthlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VillageMonthlySummaryRepository extends JpaRepository<VillageMonthlySummary, Long> {
+
+    List<VillageMonthlySummary> findByYearAndMonthOrderByVillageNameAsc(Integer year, Integer month);
+
+    List<VillageMonthlySummary> findByYearAndMonthAndVillageName(Integer year, Integer month, String villageName);
+
+    /**
+     * Adds a delta to one (village, year, month) row, creating it if it does not exist yet.
+     * This is a single atomic statement, so concurrent counters never lose an update.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO village_monthly_summaries "
+            + "(village_name, summary_year, summary_month, families_served, kg_distributed, kg_entitled, total_deficit_kg) "
+            + "VALUES (:village, :year, :month, :families, :distributed, :entitled, :deficit) "
+            + "ON DUPLICATE KEY UPDATE families_served = families_served + :families, "
+            + "kg_distributed = kg_distributed + :distributed, kg_entitled = kg_entitled + :entitled, "
+            + "total_deficit_kg = total_deficit_kg + :deficit")
+    void addToSummary(@Param("village") String villageName, @Param("year") int year, @Param("month") int month,
+                      @Param("families") long familiesServed, @Param("distributed") BigDecimal kgDistributed,
+                      @Param("entitled") BigDecimal kgEntitled, @Param("deficit") BigDecimal deficitKg);
+
+    @Modifying
+    @Query("DELETE FROM VillageMonthlySummary s WHERE s.year = :year")
+    int deleteByYear(@Param("year") int year);
+
+    /**
+     * Recomputes every summary row of a year from distribution_records in one set-based statement.
+     * Used to backfill the rollup for data written before it existed, or to repair it.
+     * A family recorded twice in a month before that was prevented is still served once.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO village_monthly_summaries "
+            + "(village_name, summary_year, summary_month, families_served, kg_distributed, kg_entitled, total_deficit_kg) "
+            + "SELECT COALESCE(r.village_name, ''), YEAR(r.distribution_date), MONTH(r.distribution_date), "
+            + "COUNT(DISTINCT r.family_id), "
+            + "SUM(r.rice_received_kg), COALESCE(SUM(r.entitlement_kg), 0), "
+            + "COALESCE(SUM(GREATEST(r.entitlement_kg - r.rice_received_kg, 0)), 0) "
+            + "FROM distribution_records r "
+            + "WHERE r.distribution_date BETWEEN :startDate AND :endDate "
+            + "GROUP BY COALESCE(r.village_name, ''), YEAR(r.distribution_date), MONTH(r.distribution_date)")
+    int rebuildFromRecords(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
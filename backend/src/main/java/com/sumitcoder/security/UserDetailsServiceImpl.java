@@ -1,11 +1,13 @@
 package com.sumitcoder.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.sumitcoder.config.CacheConfig;
 import com.sumitcoder.repository.AdminUserRepository;
 
 @Service
@@ -14,7 +16,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private AdminUserRepository adminUserRepository;
 
+    // Cached because the JWT filter calls this on every authenticated request.
+    // AdminUserService evicts the entry whenever the admin's password changes.
     @Override
+    @Cacheable(cacheNames = CacheConfig.ADMIN_USERS, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return adminUserRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Admin user not found with username: " + username));
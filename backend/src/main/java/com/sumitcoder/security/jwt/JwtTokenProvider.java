@@ -1,17 +1,22 @@
 package com.sumitcoder.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.sumitcoder.config.CacheConfig;
+
 import java.security.Key;
 import java.util.Date;
-import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
@@ -22,47 +27,46 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    // The HMAC key and the parser are immutable and thread-safe, so they are built once
+    // instead of Base64-decoding the secret on every parse.
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateToken(UserDetails userDetails) {
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-    
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Parses and verifies a token once. Successful results are cached for a short time, so a
+     * client sending the same token again skips the HMAC check; callers must still check
+     * {@link VerifiedToken#isExpired()} because a cached entry can outlive the token.
+     * @param token The compact JWT from the Authorization header.
+     * @return The verified subject and expiry, or null if the token is malformed, forged or expired.
+     */
+    @Cacheable(cacheNames = CacheConfig.VERIFIED_TOKENS, key = "#token", unless = "#result == null")
+    public VerifiedToken verifyToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return new VerifiedToken(claims.getSubject(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,14 @@
+package com.sumitcoder.security.jwt;
+
+import java.util.Date;
+
+/**
+ * The result of verifying a JWT once: who it belongs to and when it stops being valid.
+ * Cached by token, so later requests with the same token skip signature verification.
+ */
+public record VerifiedToken(String username, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
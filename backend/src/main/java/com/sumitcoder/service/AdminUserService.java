@@ -1,10 +1,14 @@
 package com.sumitcoder.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sumitcoder.config.CacheConfig;
 import com.sumitcoder.dto.PasswordChangeDto;
 import com.sumitcoder.dto.ResetPasswordDto;
 import com.sumitcoder.entity.AdminUser;
@@ -23,12 +27,16 @@ public class AdminUserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Allows a currently logged-in admin to change their own password.
      * @param username The username of the logged-in admin.
      * @param passwordChangeDto DTO containing old and new passwords.
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ADMIN_USERS, key = "#username")
     public void changePassword(String username, PasswordChangeDto passwordChangeDto) {
         AdminUser adminUser = adminUserRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
@@ -90,6 +98,12 @@ public class AdminUserService {
         adminUser.setResetTokenExpiry(null);
         
         adminUserRepository.save(adminUser);
+
+        // The username is only known once the token has been resolved, so evict by hand.
+        Cache adminUsers = cacheManager.getCache(CacheConfig.ADMIN_USERS);
+        if (adminUsers != null) {
+            adminUsers.evict(adminUser.getUsername());
+        }
     }
 }
 
@@ -1,22 +1,51 @@
 package com.sumitcoder.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sumitcoder.config.CacheConfig;
 import com.sumitcoder.dto.AnnouncementDto;
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.entity.Announcement;
 import com.sumitcoder.exception.ResourceNotFoundException;
 import com.sumitcoder.repository.AnnouncementRepository;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
 @Service
 public class AnnouncementService {
 
     @Autowired
     private AnnouncementRepository announcementRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${app.cache.latest-announcements.size:20}")
+    private int latestAnnouncementsSize;
+
+    private static final Object LATEST_KEY = "latest";
+    private static final Sort NEWEST_FIRST = Sort.by("createdAt").descending();
+
+    /** The newest announcements and the total count, as held in the LATEST_ANNOUNCEMENTS cache. */
+    private record LatestAnnouncements(List<AnnouncementDto> newest, long total) {}
+
     /**
      * UPDATED: This method now fetches announcements in a paginated format.
      * @param pageable The pagination information (page, size, sort).
@@ -27,7 +56,47 @@ public class AnnouncementService {
         return announcementsPage.map(this::convertToDto);
     }
 
+    /**
+     * Newest-first page for the public feed. Pages that fall inside the cached window of the
+     * newest announcements are served without touching the database; older pages fall through
+     * to getAllAnnouncements.
+     */
+    public Page<AnnouncementDto> getPublicAnnouncements(Pageable pageable) {
+        long end = pageable.getOffset() + pageable.getPageSize();
+        if (!NEWEST_FIRST.equals(pageable.getSort()) || end > latestAnnouncementsSize) {
+            return getAllAnnouncements(pageable);
+        }
+        LatestAnnouncements latest = getLatestSnapshot();
+        List<AnnouncementDto> newest = latest.newest();
+        int from = (int) Math.min(pageable.getOffset(), newest.size());
+        int to = (int) Math.min(end, newest.size());
+        return new PageImpl<>(newest.subList(from, to), pageable, latest.total());
+    }
+
+    /**
+     * The most recent announcement, served from the same cache as the first page of the public feed.
+     */
+    public Optional<AnnouncementDto> getLatestAnnouncement() {
+        List<AnnouncementDto> newest = getLatestSnapshot().newest();
+        return newest.isEmpty() ? Optional.empty() : Optional.of(newest.get(0));
+    }
+
+    /**
+     * Keyset-paginated variant of getAllAnnouncements, newest first.
+     * @param cursor The cursor returned with the previous slice, or null for the first slice.
+     */
+    public CursorPageDto<AnnouncementDto> scrollAnnouncements(String cursor, int size) {
+        Map<String, Function<String, Object>> keyTypes = new LinkedHashMap<>();
+        keyTypes.put("createdAt", LocalDateTime::parse);
+        keyTypes.put("id", Long::valueOf);
+        ScrollPosition position = KeysetCursors.decode(cursor, keyTypes);
+
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        return KeysetCursors.toCursorPage(announcementRepository.findBy(position, KeysetCursors.limit(size), sort), this::convertToDto);
+    }
+
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LATEST_ANNOUNCEMENTS, allEntries = true)
     public AnnouncementDto createAnnouncement(AnnouncementDto announcementDto) {
         Announcement announcement = new Announcement();
         announcement.setTitle(announcementDto.getTitle());
@@ -37,6 +106,7 @@ public class AnnouncementService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LATEST_ANNOUNCEMENTS, allEntries = true)
     public AnnouncementDto updateAnnouncement(Long id, AnnouncementDto announcementDto) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Announcement not found with id: " + id));
@@ -49,6 +119,7 @@ public class AnnouncementService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.LATEST_ANNOUNCEMENTS, allEntries = true)
     public void deleteAnnouncement(Long id) {
         if (!announcementRepository.existsById(id)) {
             throw new ResourceNotFoundException("Announcement not found with id: " + id);
@@ -56,12 +127,24 @@ public class AnnouncementService {
         announcementRepository.deleteById(id);
     }
     
+    // --- Helper Methods ---
+
+    // Looked up through the CacheManager rather than @Cacheable so that calls from within this bean are cached too.
+    private LatestAnnouncements getLatestSnapshot() {
+        Cache cache = cacheManager.getCache(CacheConfig.LATEST_ANNOUNCEMENTS);
+        return cache.get(LATEST_KEY, () -> {
+            Page<Announcement> page = announcementRepository.findAll(PageRequest.of(0, latestAnnouncementsSize, NEWEST_FIRST));
+            return new LatestAnnouncements(page.map(this::convertToDto).toList(), page.getTotalElements());
+        });
+    }
+
     private AnnouncementDto convertToDto(Announcement announcement) {
         AnnouncementDto dto = new AnnouncementDto();
         dto.setId(announcement.getId());
         dto.setTitle(announcement.getTitle());
         dto.setContent(announcement.getContent());
         dto.setCreatedAt(announcement.getCreatedAt());
+        dto.setUpdatedAt(announcement.getUpdatedAt());
         return dto;
     }
 }
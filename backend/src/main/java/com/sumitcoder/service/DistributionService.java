@@ -2,64 +2,191 @@ package com.sumitcoder.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.sumitcoder.config.CacheConfig;
+import com.sumitcoder.dto.BulkIngestResponseDto;
+import com.sumitcoder.dto.BulkRecordResultDto;
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.dto.DistributionRecordDto;
 import com.sumitcoder.dto.FamilyDto;
+import com.sumitcoder.dto.ScanRecordDto;
 import com.sumitcoder.entity.DistributionRecord;
 import com.sumitcoder.entity.Family;
+import com.sumitcoder.exception.BadRequestException;
+import com.sumitcoder.exception.ResourceNotFoundException;
+import com.sumitcoder.repository.DistributionBatchRepository;
 import com.sumitcoder.repository.DistributionRecordRepository;
 import com.sumitcoder.repository.FamilyRepository;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class DistributionService {
 
+    // Keeps the IN (...) list of a single lookup query within a sensible size.
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
     @Autowired
     private FamilyRepository familyRepository;
 
     @Autowired
     private DistributionRecordRepository distributionRecordRepository;
 
+    @Autowired
+    private DistributionBatchRepository distributionBatchRepository;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private FamilyIdGenerator familyIdGenerator;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${app.rice-per-person-kg}")
     private double ricePerPersonKg;
 
-    @Transactional
+    /**
+     * UPDATED: Records a public form submission. The family is created or updated with one native
+     * upsert and the record is inserted only if the family has none for that month yet, so repeated
+     * or concurrent submissions are idempotent: they return the record already stored, with
+     * alreadyRecorded set, instead of counting the family twice.
+     * A family without a uniqueFamilyId gets one drawn before the transaction starts, so a block
+     * reservation never needs a second connection while this one holds the family row locked.
+     * @param recordDto The submitted form.
+     * @return The record of this family and month, new or existing.
+     */
+    @CacheEvict(cacheNames = CacheConfig.FAMILIES_BY_CONTACT, key = "#recordDto.contactNumber")
     public DistributionRecordDto createPublicRecord(DistributionRecordDto recordDto) {
-        Optional<Family> existingFamilyOpt = familyRepository.findByContactNumber(recordDto.getContactNumber());
-
-        Family family;
-        if (existingFamilyOpt.isPresent()) {
-            family = existingFamilyOpt.get();
-            family.setFamilyHeadName(recordDto.getFamilyHeadName());
-            family.setNumMembers(recordDto.getNumMembers());
-            family.setVillageName(recordDto.getVillageName());
-        } else {
-            family = new Family();
-            family.setFamilyHeadName(recordDto.getFamilyHeadName());
-            family.setContactNumber(recordDto.getContactNumber());
-            family.setNumMembers(recordDto.getNumMembers());
-            family.setVillageName(recordDto.getVillageName());
+        String newFamilyId = familyRepository.existsByContactNumberAndUniqueFamilyIdIsNotNull(recordDto.getContactNumber())
+                ? null
+                : familyIdGenerator.nextId(recordDto.getVillageName());
+
+        return transactionTemplate.execute(status -> {
+            familyRepository.upsertFamily(recordDto.getContactNumber(), recordDto.getFamilyHeadName(),
+                    recordDto.getNumMembers(), recordDto.getVillageName(), LocalDateTime.now(), newFamilyId);
+            Family family = familyRepository.findByContactNumber(recordDto.getContactNumber()).orElseThrow();
+            return recordOncePerMonth(family, recordDto.getRiceReceivedKg(), recordDto.getDistributionDate());
+        });
+    }
+
+    /**
+     * NEW: Counter fast path for a scanned ration card. The family is found with a single indexed
+     * lookup on the QR token and only the distribution record is written: unlike createPublicRecord,
+     * the Family row is read but never rewritten, so its cached autofill entry stays valid too.
+     * Like createPublicRecord, a family already served this month gets its existing record back.
+     * @param scanDto The scanned QR token and the rice handed out.
+     * @return The record of this family and month, new or existing.
+     */
+    @Transactional
+    public DistributionRecordDto createScannedRecord(ScanRecordDto scanDto) {
+        Family family = findFamilyByQrToken(scanDto.getToken())
+                .orElseThrow(() -> new ResourceNotFoundException("No family found for this QR code."));
+        LocalDate distributionDate = scanDto.getDistributionDate() != null ? scanDto.getDistributionDate() : LocalDate.now();
+
+        return recordOncePerMonth(family, scanDto.getRiceReceivedKg(), distributionDate);
+    }
+
+    /**
+     * Ingests many distribution records in one transaction.
+     * Invalid rows are rejected individually and the valid ones are still stored. All families
+     * are resolved with set-based lookups, and new families and records are written in JDBC batches.
+     * When a contact number appears more than once, the last row's family details are kept.
+     * As in createPublicRecord, missing uniqueFamilyIds are drawn before the transaction starts.
+     * @param recordDtos The rows to ingest, in the order the client submitted them.
+     * @return A summary with one result per submitted row.
+     */
+    public BulkIngestResponseDto createRecordsInBulk(List<DistributionRecordDto> recordDtos) {
+        List<BulkRecordResultDto> results = new ArrayList<>(recordDtos.size());
+        Map<String, DistributionRecordDto> latestRowByContact = new LinkedHashMap<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+
+        for (int i = 0; i < recordDtos.size(); i++) {
+            DistributionRecordDto row = recordDtos.get(i);
+            String error = validateRow(row);
+            if (error != null) {
+                BulkRecordResultDto result = new BulkRecordResultDto(i, BulkRecordResultDto.STATUS_REJECTED,
+                        row == null ? null : row.getContactNumber());
+                result.setMessage(error);
+                results.add(result);
+            } else {
+                results.add(new BulkRecordResultDto(i, BulkRecordResultDto.STATUS_CREATED, row.getContactNumber()));
+                latestRowByContact.put(row.getContactNumber(), row);
+                acceptedRows.add(i);
+            }
         }
-        
-        Family savedFamily = familyRepository.save(family);
 
-        DistributionRecord newRecord = new DistributionRecord();
-        newRecord.setRiceReceivedKg(recordDto.getRiceReceivedKg());
-        newRecord.setDistributionDate(recordDto.getDistributionDate());
-        newRecord.setFamily(savedFamily);
+        if (acceptedRows.isEmpty()) {
+            return new BulkIngestResponseDto(results);
+        }
+
+        Map<String, String> newFamilyIds = reserveFamilyIds(latestRowByContact.values());
+        transactionTemplate.executeWithoutResult(status ->
+                storeAcceptedRows(recordDtos, acceptedRows, latestRowByContact, newFamilyIds, results));
+
+        return new BulkIngestResponseDto(results);
+    }
 
-        DistributionRecord savedRecord = distributionRecordRepository.save(newRecord);
-        
-        return convertToDto(savedRecord);
+    /**
+     * NEW: Fills distribution_month on records written before it existed, for one id range.
+     * Only the earliest record of each family and month gets it; older duplicates keep a null month,
+     * so they do not break uk_family_month, and stay visible in lists and reports as before.
+     * @return The number of records that were given a month.
+     */
+    @Transactional
+    public int backfillDistributionMonths(long fromId, long toId) {
+        List<DistributionRecord> records = distributionRecordRepository.findByDistributionMonthIsNullAndIdBetweenOrderById(fromId, toId);
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Set<FamilyMonth> recordedMonths = findRecordedMonths(
+                records.stream().map(r -> r.getFamily().getId()).distinct().collect(Collectors.toList()),
+                records.stream().map(r -> DistributionRecord.monthOf(r.getDistributionDate())).collect(Collectors.toSet()));
+
+        int filled = 0;
+        for (DistributionRecord record : records) {
+            LocalDate month = DistributionRecord.monthOf(record.getDistributionDate());
+            if (recordedMonths.add(new FamilyMonth(record.getFamily().getId(), month))) {
+                record.setDistributionMonth(month);
+                filled++;
+            }
+        }
+        return filled;
     }
 
     /**
@@ -87,6 +214,32 @@ public class DistributionService {
         return recordsPage.map(this::convertToDto);
     }
 
+    /**
+     * Keyset-paginated variant of getAllRecords, newest first.
+     * @param cursor The cursor returned with the previous slice, or null for the first slice.
+     */
+    public CursorPageDto<DistributionRecordDto> scrollRecords(Integer year, Integer month, String cursor, int size) {
+        if (month != null && year == null) {
+            throw new BadRequestException("A month filter also needs a year.");
+        }
+        if (month != null && (month < 1 || month > 12)) {
+            throw new BadRequestException("Month must be between 1 and 12.");
+        }
+        ScrollPosition position = KeysetCursors.decode(cursor, Map.<String, Function<String, Object>>of("id", Long::valueOf));
+        Sort sort = Sort.by("id").descending();
+        Window<DistributionRecord> window;
+
+        if (year != null) {
+            LocalDate startDate = month != null ? LocalDate.of(year, month, 1) : LocalDate.of(year, 1, 1);
+            LocalDate endDate = month != null ? startDate.withDayOfMonth(startDate.lengthOfMonth()) : LocalDate.of(year, 12, 31);
+            window = distributionRecordRepository.findByDistributionDateBetween(startDate, endDate, position, KeysetCursors.limit(size), sort);
+        } else {
+            window = distributionRecordRepository.findBy(position, KeysetCursors.limit(size), sort);
+        }
+
+        return KeysetCursors.toCursorPage(window, this::convertToDto);
+    }
+
     public List<DistributionRecordDto> getRecordsForFamily(Long familyId) {
         return distributionRecordRepository.findByFamilyIdOrderByIdDesc(familyId)
                 .stream()
@@ -94,6 +247,222 @@ public class DistributionService {
                 .collect(Collectors.toList());
     }
     
+    // --- Helper Methods ---
+
+    /**
+     * Draws a uniqueFamilyId for every contact number whose family has none yet. This runs outside
+     * the bulk transaction, so a block reservation never needs a second connection while the upload
+     * holds one. An id drawn for a family that gets one concurrently is simply never used.
+     */
+    private Map<String, String> reserveFamilyIds(Collection<DistributionRecordDto> latestRows) {
+        List<String> contactNumbers = latestRows.stream()
+                .map(DistributionRecordDto::getContactNumber)
+                .collect(Collectors.toList());
+        Set<String> withIds = new HashSet<>();
+        for (int from = 0; from < contactNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = contactNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, contactNumbers.size()));
+            withIds.addAll(familyRepository.findContactNumbersWithUniqueFamilyId(chunk));
+        }
+
+        List<Family> needingIds = new ArrayList<>();
+        for (DistributionRecordDto row : latestRows) {
+            if (!withIds.contains(row.getContactNumber())) {
+                Family family = new Family();
+                family.setContactNumber(row.getContactNumber());
+                family.setVillageName(row.getVillageName());
+                needingIds.add(family);
+            }
+        }
+        familyIdGenerator.assignMissingIds(needingIds);
+        return needingIds.stream().collect(Collectors.toMap(Family::getContactNumber, Family::getUniqueFamilyId));
+    }
+
+    private void storeAcceptedRows(List<DistributionRecordDto> recordDtos, List<Integer> acceptedRows,
+                                   Map<String, DistributionRecordDto> latestRowByContact,
+                                   Map<String, String> newFamilyIds, List<BulkRecordResultDto> results) {
+        // Existing families are updated in place and flushed as one batch of UPDATEs at commit.
+        Map<String, Family> familiesByContact = findFamiliesByContactNumbers(latestRowByContact.keySet());
+        Set<FamilyMonth> recordedMonths = findRecordedMonths(
+                familiesByContact.values().stream().map(Family::getId).collect(Collectors.toList()),
+                acceptedRows.stream().map(i -> DistributionRecord.monthOf(recordDtos.get(i).getDistributionDate()))
+                        .collect(Collectors.toSet()));
+        List<Family> newFamilies = new ArrayList<>();
+        for (DistributionRecordDto row : latestRowByContact.values()) {
+            Family family = familiesByContact.get(row.getContactNumber());
+            if (family == null) {
+                family = new Family();
+                family.setContactNumber(row.getContactNumber());
+                newFamilies.add(family);
+            }
+            applyFamilyDetails(family, row);
+            if (family.getUniqueFamilyId() == null) {
+                family.setUniqueFamilyId(newFamilyIds.get(row.getContactNumber()));
+            }
+        }
+
+        if (!newFamilies.isEmpty()) {
+            // Upserted, not inserted: a counter may register one of these families while the upload runs.
+            distributionBatchRepository.upsertFamilies(newFamilies);
+            List<String> newContactNumbers = newFamilies.stream()
+                    .map(Family::getContactNumber)
+                    .collect(Collectors.toList());
+            familiesByContact.putAll(findFamiliesByContactNumbers(newContactNumbers));
+        }
+
+        // One record per family and month: rows for a month the family already has, in the database
+        // or earlier in this upload, are reported as duplicates and not stored.
+        List<DistributionRecord> newRecords = new ArrayList<>(acceptedRows.size());
+        List<Integer> newRecordRows = new ArrayList<>(acceptedRows.size());
+        for (int index : acceptedRows) {
+            DistributionRecordDto row = recordDtos.get(index);
+            Family family = familiesByContact.get(row.getContactNumber());
+            results.get(index).setFamilyId(family.getId());
+
+            LocalDate month = DistributionRecord.monthOf(row.getDistributionDate());
+            if (!recordedMonths.add(new FamilyMonth(family.getId(), month))) {
+                markDuplicate(results.get(index), month);
+                continue;
+            }
+
+            DistributionRecord record = new DistributionRecord();
+            record.setFamily(family);
+            record.setRiceReceivedKg(row.getRiceReceivedKg());
+            record.setDistributionDate(row.getDistributionDate());
+            snapshotEntitlement(record, family);
+            newRecords.add(record);
+            newRecordRows.add(index);
+        }
+        monthlySummaryService.addRecords(insertNewRecords(newRecords, newRecordRows, results));
+        familyService.evictCachedFamilies(latestRowByContact.keySet());
+    }
+
+    /**
+     * Writes the new records in one batch and returns those that were really stored. A record a counter
+     * stored for the same family and month while the batch was running absorbs the batch row, which
+     * bumps its duplicate_submissions; the rows this batch inserted are locked and still at zero.
+     * @param rows The index of each record's row in results, where absorbed rows are marked as duplicates.
+     */
+    private List<DistributionRecord> insertNewRecords(List<DistributionRecord> newRecords, List<Integer> rows,
+                                                      List<BulkRecordResultDto> results) {
+        if (newRecords.isEmpty()) {
+            return newRecords;
+        }
+        distributionBatchRepository.insertRecords(newRecords);
+
+        Set<FamilyMonth> absorbedMonths = findFamilyMonths(
+                newRecords.stream().map(r -> r.getFamily().getId()).distinct().collect(Collectors.toList()),
+                newRecords.stream().map(DistributionRecord::getDistributionMonth).collect(Collectors.toSet()),
+                distributionRecordRepository::findRepeatedMonths);
+        List<DistributionRecord> storedRecords = new ArrayList<>(newRecords.size());
+        for (int i = 0; i < newRecords.size(); i++) {
+            DistributionRecord record = newRecords.get(i);
+            if (absorbedMonths.contains(new FamilyMonth(record.getFamily().getId(), record.getDistributionMonth()))) {
+                markDuplicate(results.get(rows.get(i)), record.getDistributionMonth());
+            } else {
+                storedRecords.add(record);
+            }
+        }
+        return storedRecords;
+    }
+
+    private void markDuplicate(BulkRecordResultDto result, LocalDate month) {
+        result.setStatus(BulkRecordResultDto.STATUS_DUPLICATE);
+        result.setMessage("Already recorded for this family in " + YearMonth.from(month));
+    }
+
+    private void applyFamilyDetails(Family family, DistributionRecordDto recordDto) {
+        family.setFamilyHeadName(recordDto.getFamilyHeadName());
+        family.setNumMembers(recordDto.getNumMembers());
+        family.setVillageName(recordDto.getVillageName());
+    }
+
+    // Inserts the family's record for the month of distributionDate, unless it already has one.
+    // Either way the record of that month is read back; only a new one is added to the rollup.
+    private DistributionRecordDto recordOncePerMonth(Family family, BigDecimal riceReceivedKg, LocalDate distributionDate) {
+        DistributionRecord newRecord = new DistributionRecord();
+        newRecord.setFamily(family);
+        newRecord.setRiceReceivedKg(riceReceivedKg);
+        newRecord.setDistributionDate(distributionDate);
+        snapshotEntitlement(newRecord, family);
+
+        boolean inserted = distributionRecordRepository.insertUnlessRecordedThisMonth(family.getId(), riceReceivedKg,
+                distributionDate, newRecord.getDistributionMonth(), newRecord.getEntitlementKg(),
+                newRecord.getRicePerPersonKg(), newRecord.getVillageName(), newRecord.getCreatedAt()) == 1;
+        DistributionRecord record = distributionRecordRepository
+                .findByFamilyIdAndDistributionMonth(family.getId(), newRecord.getDistributionMonth())
+                .orElseThrow();
+
+        if (inserted) {
+            monthlySummaryService.addRecords(List.of(record));
+        }
+        DistributionRecordDto dto = convertToDto(record);
+        if (!inserted) {
+            dto.setAlreadyRecorded(true);
+        }
+        return dto;
+    }
+
+    // Freezes the entitlement (family size x current rate) and village on the record at write time.
+    private void snapshotEntitlement(DistributionRecord record, Family family) {
+        BigDecimal rate = BigDecimal.valueOf(ricePerPersonKg);
+        record.setRicePerPersonKg(rate);
+        record.setEntitlementKg(rate.multiply(BigDecimal.valueOf(family.getNumMembers())).setScale(2, RoundingMode.HALF_UP));
+        record.setVillageName(family.getVillageName());
+    }
+
+    // Ration card QR codes carry the uniqueFamilyId, or the contact number for families without one
+    // (see QrCodeService.qrPayload). Contact numbers are all digits; uniqueFamilyIds never are.
+    private Optional<Family> findFamilyByQrToken(String token) {
+        String trimmed = token.trim();
+        boolean contactNumber = trimmed.chars().allMatch(Character::isDigit);
+        return contactNumber ? familyRepository.findByContactNumber(trimmed) : familyRepository.findByUniqueFamilyId(trimmed);
+    }
+
+    private Map<String, Family> findFamiliesByContactNumbers(Collection<String> contactNumbers) {
+        List<String> pending = new ArrayList<>(contactNumbers);
+        Map<String, Family> familiesByContact = new HashMap<>();
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+            for (Family family : familyRepository.findAllByContactNumberIn(chunk)) {
+                familiesByContact.put(family.getContactNumber(), family);
+            }
+        }
+        return familiesByContact;
+    }
+
+    private Set<FamilyMonth> findRecordedMonths(List<Long> familyIds, Set<LocalDate> months) {
+        return findFamilyMonths(familyIds, months, distributionRecordRepository::findRecordedMonths);
+    }
+
+    private Set<FamilyMonth> findFamilyMonths(List<Long> familyIds, Set<LocalDate> months,
+            BiFunction<List<Long>, Set<LocalDate>, List<DistributionRecordRepository.FamilyMonth>> query) {
+        Set<FamilyMonth> found = new HashSet<>();
+        if (months.isEmpty()) {
+            return found;
+        }
+        for (int from = 0; from < familyIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = familyIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, familyIds.size()));
+            for (DistributionRecordRepository.FamilyMonth row : query.apply(chunk, months)) {
+                found.add(new FamilyMonth(row.getFamilyId(), row.getDistributionMonth()));
+            }
+        }
+        return found;
+    }
+
+    private String validateRow(DistributionRecordDto row) {
+        if (row == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<DistributionRecordDto>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
     private DistributionRecordDto convertToDto(DistributionRecord record) {
         DistributionRecordDto dto = new DistributionRecordDto();
         dto.setId(record.getId());
@@ -112,16 +481,22 @@ public class DistributionService {
             
             dto.setFamily(familyDto);
             dto.setUniqueFamilyId(familyEntity.getUniqueFamilyId());
+        }
 
-            BigDecimal entitlement = BigDecimal.valueOf(familyEntity.getNumMembers() * ricePerPersonKg);
-            BigDecimal riceReceived = record.getRiceReceivedKg();
-            BigDecimal deficit = entitlement.subtract(riceReceived).max(BigDecimal.ZERO);
-
+        // Use the entitlement snapshotted when the record was written. Only rows that
+        // predate the snapshot and have not been backfilled yet fall back to the live family.
+        BigDecimal entitlement = record.getEntitlementKg();
+        if (entitlement == null && record.getFamily() != null) {
+            entitlement = BigDecimal.valueOf(record.getFamily().getNumMembers() * ricePerPersonKg);
+        }
+        if (entitlement != null) {
             dto.setEntitlementKg(entitlement);
-            dto.setDeficitKg(deficit);
+            dto.setDeficitKg(entitlement.subtract(record.getRiceReceivedKg()).max(BigDecimal.ZERO));
         }
-        
+
         return dto;
     }
-}
 
+    private record FamilyMonth(Long familyId, LocalDate month) {
+    }
+}
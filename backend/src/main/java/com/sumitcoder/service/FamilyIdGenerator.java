@@ -0,0 +1,152 @@
+package com.sumitcoder.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyIdSequenceRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out uniqueFamilyIds such as "RAM-0001Z": a three-letter prefix taken from the village
+ * name and a base-36 sequence number per prefix. Sequence values are reserved from the database
+ * in blocks (app.family-id.block-size) and then handed out from memory, so creating a family
+ * costs no extra statement most of the time and never needs a read-check-retry. Values of a
+ * block that is not used up before a restart are skipped, which leaves gaps but no duplicates.
+ * An id always contains letters and a dash, so it can never be mistaken for a contact number.
+ */
+@Service
+public class FamilyIdGenerator {
+
+    private static final int PREFIX_LENGTH = 3;
+
+    // For families without a usable village name
+    private static final String DEFAULT_PREFIX = "FAM";
+
+    private static final int MIN_SEQUENCE_DIGITS = 5;
+
+    private final FamilyIdSequenceRepository sequenceRepository;
+
+    private final TransactionTemplate reservationTransaction;
+
+    private final int blockSize;
+
+    private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public FamilyIdGenerator(FamilyIdSequenceRepository sequenceRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.family-id.block-size:100}") int blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.blockSize = blockSize;
+        // Reservations commit on their own, so the sequence row is locked only for the two statements
+        // and a block is never handed out twice when the caller's transaction rolls back.
+        this.reservationTransaction = new TransactionTemplate(transactionManager);
+        this.reservationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Gives every family that has no uniqueFamilyId yet a new one, based on its current village.
+     * Families that already have an id keep it.
+     * @param families The families to check; they are modified in place.
+     */
+    public void assignMissingIds(Collection<Family> families) {
+        Map<String, List<Family>> byPrefix = new LinkedHashMap<>();
+        for (Family family : families) {
+            if (family.getUniqueFamilyId() == null) {
+                byPrefix.computeIfAbsent(prefixFor(family.getVillageName()), p -> new ArrayList<>()).add(family);
+            }
+        }
+        byPrefix.forEach((prefix, group) -> {
+            List<String> ids = nextIds(prefix, group.size());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).setUniqueFamilyId(ids.get(i));
+            }
+        });
+    }
+
+    /**
+     * Hands out one new id for a family of the given village.
+     * When a new block has to be reserved this takes a database connection of its own, so callers
+     * on a hot path should call it before they open their transaction: threads that hold a
+     * connection while waiting for the reservation could otherwise take the whole pool.
+     */
+    public String nextId(String villageName) {
+        return nextIds(prefixFor(villageName), 1).get(0);
+    }
+
+    /**
+     * The id prefix of a village: its first three letters, upper-cased with accents removed
+     * and padded with X, or FAM when the name has no Latin letters.
+     */
+    static String prefixFor(String villageName) {
+        if (villageName == null) {
+            return DEFAULT_PREFIX;
+        }
+        String letters = Normalizer.normalize(villageName, Normalizer.Form.NFD)
+                .toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z]", "");
+        if (letters.isEmpty()) {
+            return DEFAULT_PREFIX;
+        }
+        return (letters + "X".repeat(PREFIX_LENGTH)).substring(0, PREFIX_LENGTH);
+    }
+
+    // --- Helper Methods ---
+
+    private List<String> nextIds(String prefix, int count) {
+        Block block = blocks.computeIfAbsent(prefix, p -> new Block());
+        List<String> ids = new ArrayList<>(count);
+        block.lock.lock();
+        try {
+            while (ids.size() < count) {
+                if (block.next > block.last) {
+                    // Large batches reserve everything they still need in one go
+                    long size = Math.max(blockSize, count - ids.size());
+                    block.last = reserve(prefix, size);
+                    block.next = block.last - size + 1;
+                }
+                ids.add(format(prefix, block.next++));
+            }
+        } finally {
+            block.lock.unlock();
+        }
+        return ids;
+    }
+
+    private long reserve(String prefix, long size) {
+        Long last = reservationTransaction.execute(status -> {
+            sequenceRepository.reserveBlock(prefix, size);
+            return sequenceRepository.findLastAllocated(prefix);
+        });
+        if (last == null) {
+            throw new IllegalStateException("Could not reserve family ids for prefix " + prefix);
+        }
+        return last;
+    }
+
+    private String format(String prefix, long value) {
+        String digits = Long.toString(value, 36).toUpperCase(Locale.ROOT);
+        return prefix + "-" + "0".repeat(Math.max(0, MIN_SEQUENCE_DIGITS - digits.length())) + digits;
+    }
+
+    // The part of a reserved range this instance has not handed out yet: next..last, inclusive.
+    // A lock rather than synchronized, so waiting threads never pin a carrier thread.
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next = 1;
+        private long last = 0;
+    }
+}
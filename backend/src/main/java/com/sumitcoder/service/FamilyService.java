@@ -0,0 +1,85 @@
+package com.sumitcoder.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sumitcoder.config.CacheConfig;
+import com.sumitcoder.dto.FamilyDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class FamilyService {
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private FamilyIdGenerator familyIdGenerator;
+
+    /**
+     * Looks up a family for the public autofill. Answers (including "not found") are served from
+     * the familiesByContact cache; DistributionService evicts an entry whenever it writes that family.
+     * @param contactNumber The 10-digit contact number.
+     * @return The family details, or empty if no family uses this number.
+     */
+    @Cacheable(cacheNames = CacheConfig.FAMILIES_BY_CONTACT, key = "#contactNumber")
+    public Optional<FamilyDto> getFamilyByContactNumber(String contactNumber) {
+        return familyRepository.findByContactNumber(contactNumber).map(this::convertToDto);
+    }
+
+    /**
+     * NEW: Looks up a family by the uniqueFamilyId printed on its ration card.
+     * @param uniqueFamilyId The id, e.g. RAM-0001Z.
+     * @return The family details, or empty if no family has this id.
+     */
+    public Optional<FamilyDto> getFamilyByUniqueFamilyId(String uniqueFamilyId) {
+        return familyRepository.findByUniqueFamilyId(uniqueFamilyId).map(this::convertToDto);
+    }
+
+    /**
+     * NEW: Gives the families of one id range that have no uniqueFamilyId yet an id.
+     * Used by FamilyIdBackfillInitializer, one transaction per range.
+     * @return The number of families that were given an id.
+     */
+    @Transactional
+    public int backfillUniqueFamilyIds(long fromId, long toId) {
+        List<Family> families = familyRepository.findByUniqueFamilyIdIsNullAndIdBetween(fromId, toId);
+        familyIdGenerator.assignMissingIds(families);
+        evictCachedFamilies(families.stream().map(Family::getContactNumber).toList());
+        return families.size();
+    }
+
+    /**
+     * Drops cached lookups for families that were just created or updated.
+     * Inside a transaction the eviction is deferred until it commits.
+     */
+    public void evictCachedFamilies(Collection<String> contactNumbers) {
+        Cache cache = cacheManager.getCache(CacheConfig.FAMILIES_BY_CONTACT);
+        if (cache != null) {
+            contactNumbers.forEach(cache::evict);
+        }
+    }
+
+    private FamilyDto convertToDto(Family family) {
+        FamilyDto familyDto = new FamilyDto();
+        familyDto.setId(family.getId());
+        familyDto.setFamilyHeadName(family.getFamilyHeadName());
+        familyDto.setContactNumber(family.getContactNumber());
+        familyDto.setNumMembers(family.getNumMembers());
+        familyDto.setVillageName(family.getVillageName());
+        familyDto.setUniqueFamilyId(family.getUniqueFamilyId());
+        return familyDto;
+    }
+}
@@ -2,57 +2,238 @@ package com.sumitcoder.service;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+
+import com.sumitcoder.exception.BadRequestException;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class FileStorageService {
 
+    // Bytes moved per FileChannel.transferFrom call while staging an upload.
+    private static final long TRANSFER_CHUNK = 64 * 1024;
+
+    // Content-addressed files live in two levels of shard directories named after the first hex digits of their hash.
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+
     private final Path fileStorageLocation;
 
-    // This constructor reads the upload directory from application.properties
-    public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    private final Path stagingLocation;
+
+    private final long maxUploadBytes;
+
+    @Value("${app.uploads.gzip-min-saving:0.1}")
+    private double gzipMinSaving;
+
+    // This constructor reads the upload and staging directories from application.properties
+    public FileStorageService(@Value("${file.upload-dir}") String uploadDir,
+                              @Value("${app.uploads.staging-dir:${file.upload-dir}-staging}") String stagingDir,
+                              @Value("${app.uploads.max-size:10MB}") DataSize maxUploadSize) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.stagingLocation = Paths.get(stagingDir).toAbsolutePath().normalize();
+        this.maxUploadBytes = maxUploadSize.toBytes();
 
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.stagingLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
     }
 
-    public String storeFile(MultipartFile file) {
-        // Normalize file name
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        
-        try {
-            // Check for invalid characters
-            if (originalFileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + originalFileName);
+    /**
+     * NEW: Streams an upload into the staging directory through NIO channels, enforcing the
+     * app.uploads.max-size cap while copying rather than trusting the declared size.
+     * The staged file is not served; background processing validates it and moves it into storage.
+     * @return The name of the staged file, to be passed to getStagedFile.
+     */
+    public String stageUpload(MultipartFile file) {
+        if (file.getSize() > maxUploadBytes) {
+            throw new BadRequestException("The uploaded file exceeds the limit of " + maxUploadBytes + " bytes.");
+        }
+        String stagedName = UUID.randomUUID().toString();
+        Path target = stagingLocation.resolve(stagedName);
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel destination = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = destination.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+                if (position > maxUploadBytes) {
+                    throw new BadRequestException("The uploaded file exceeds the limit of " + maxUploadBytes + " bytes.");
+                }
             }
+            return stagedName;
+        } catch (IOException | RuntimeException ex) {
+            deleteQuietly(target);
+            if (ex instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            throw new RuntimeException("Could not store the uploaded file. Please try again!", ex);
+        }
+    }
+
+    public Path getStagedFile(String stagedName) {
+        return stagingLocation.resolve(stagedName).normalize();
+    }
+
+    /**
+     * NEW: Path inside the served upload directory for a file that is about to be written.
+     */
+    public Path resolveStoredFile(String filename) {
+        return fileStorageLocation.resolve(filename).normalize();
+    }
 
-            // Create a unique filename to avoid collisions
-            String fileExtension = "";
+    /**
+     * NEW: Name of a content-addressed file relative to the upload directory, e.g. "3f/a2/3fa2...c9.jpg".
+     * @param contentHash The hex SHA-256 of the original upload.
+     * @param suffix Appended to the hash, such as ".png" or "-thumb.jpg".
+     */
+    public String contentAddressedName(String contentHash, String suffix) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash + suffix;
+    }
+
+    /**
+     * NEW: Moves a processed staged file into the content-addressed store. When the same content is
+     * already stored the staged copy is simply dropped, so a photo attached to several grievances is
+     * kept once. Either way the stored file's timestamp is refreshed, which keeps garbage collection
+     * from removing it before the new reference has been committed.
+     * @return The stored file's name relative to the upload directory.
+     */
+    public String storeContentAddressed(String stagedName, String contentHash, String extension) throws IOException {
+        String filename = contentAddressedName(contentHash, extension);
+        Path target = resolveStoredFile(filename);
+        Path staged = getStagedFile(stagedName);
+        Files.createDirectories(target.getParent());
+        if (Files.exists(target)) {
+            Files.delete(staged);
+        } else {
             try {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            } catch(Exception e) {
-                fileExtension = "";
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                // Staging and storage may live on different file systems
+                Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return filename;
+    }
+
+    /**
+     * NEW: Deletes stored and staged files that nothing references any more. Only files older than the
+     * grace period are considered, so uploads still in flight are never touched.
+     * @param referenced Every stored or staged filename still referenced by a grievance.
+     * @return The number of files deleted and the bytes they occupied.
+     */
+    public GarbageCollectionResult collectGarbage(Set<String> referenced, Duration gracePeriod) throws IOException {
+        FileTime cutoff = FileTime.from(Instant.now().minus(gracePeriod));
+        GarbageCollectionResult result = new GarbageCollectionResult();
+
+        // Content-addressed shards and the flat files written before the store existed
+        try (Stream<Path> entries = Files.list(fileStorageLocation)) {
+            for (Path entry : entries.toList()) {
+                String name = entry.getFileName().toString();
+                if (Files.isDirectory(entry) && SHARD_DIRECTORY.matcher(name).matches()) {
+                    try (Stream<Path> files = Files.walk(entry)) {
+                        for (Path file : files.filter(Files::isRegularFile).toList()) {
+                            collectIfOrphaned(file, fileStorageLocation.relativize(file).toString().replace('\\', '/'),
+                                    referenced, cutoff, result);
+                        }
+                    }
+                } else if (Files.isRegularFile(entry)) {
+                    collectIfOrphaned(entry, name, referenced, cutoff, result);
+                }
+            }
+        }
+        // Staged uploads whose grievance never got saved
+        try (Stream<Path> staged = Files.list(stagingLocation)) {
+            for (Path file : staged.filter(Files::isRegularFile).toList()) {
+                collectIfOrphaned(file, file.getFileName().toString(), referenced, cutoff, result);
             }
-            String newFileName = UUID.randomUUID().toString() + fileExtension;
+        }
+        return result;
+    }
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(newFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * NEW: Writes a gzip-compressed sibling (name + ".gz") of a stored file, which /uploads serves to
+     * clients that accept gzip. JPEG and most photos do not shrink, so the variant is kept only when
+     * it is at least app.uploads.gzip-min-saving smaller than the original.
+     * @return true if a compressed variant was kept.
+     */
+    public boolean storeCompressedVariant(String filename) throws IOException {
+        Path original = resolveStoredFile(filename);
+        Path compressed = original.resolveSibling(original.getFileName() + ".gz");
+        if (Files.exists(compressed)) {
+            return true;
+        }
+        Path partial = original.resolveSibling(original.getFileName() + ".gz." + UUID.randomUUID() + ".part");
+        try {
+            try (InputStream in = Files.newInputStream(original);
+                 OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial, StandardOpenOption.CREATE_NEW))) {
+                in.transferTo(out);
+            }
+            if (Files.size(partial) > Files.size(original) * (1.0 - gzipMinSaving)) {
+                return false;
+            }
+            Files.move(partial, compressed, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            deleteQuietly(partial);
+        }
+    }
+
+    public static final class GarbageCollectionResult {
+        private long deletedFiles;
+        private long freedBytes;
+
+        public long getDeletedFiles() { return deletedFiles; }
+        public long getFreedBytes() { return freedBytes; }
+    }
+
+    private void collectIfOrphaned(Path file, String name, Set<String> referenced, FileTime cutoff,
+                                   GarbageCollectionResult result) throws IOException {
+        // A compressed variant lives as long as the file it was made from
+        String original = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+        if (referenced.contains(name) || referenced.contains(original)) {
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.lastModifiedTime().compareTo(cutoff) >= 0) {
+            return;
+        }
+        if (Files.deleteIfExists(file)) {
+            result.deletedFiles++;
+            result.freedBytes += attributes.size();
+        }
+    }
 
-            return newFileName;
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+    public void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Best effort: a leftover file is harmless
         }
     }
 }
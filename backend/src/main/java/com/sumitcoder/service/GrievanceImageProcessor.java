@@ -0,0 +1,193 @@
+package com.sumitcoder.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.sumitcoder.config.AsyncConfig;
+import com.sumitcoder.entity.Grievance;
+import com.sumitcoder.repository.GrievanceRepository;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Background half of the grievance image upload: takes a staged upload, checks that it really is
+ * a JPEG, PNG or GIF, hashes it, writes a downscaled JPEG thumbnail and moves both into the
+ * content-addressed store. The grievance stays PENDING until this finishes, then becomes READY or REJECTED.
+ * Stored files can be shared by several grievances, so this never deletes them; files that end up
+ * unreferenced are removed by UploadGarbageCollector.
+ */
+@Service
+public class GrievanceImageProcessor {
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${app.uploads.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    @Async(AsyncConfig.IMAGE_PROCESSING_EXECUTOR)
+    public void process(Long grievanceId, String stagedName) {
+        Path staged = fileStorageService.getStagedFile(stagedName);
+        try {
+            ImageType type = sniffType(staged);
+            if (type == null) {
+                reject(grievanceId, staged, "not a JPEG, PNG or GIF image");
+                return;
+            }
+            String contentHash = sha256(staged);
+
+            // Same content, same thumbnail: a resubmitted photo is neither stored nor thumbnailed twice
+            String thumbnailFilename = fileStorageService.contentAddressedName(contentHash, "-thumb.jpg");
+            Path thumbnail = fileStorageService.resolveStoredFile(thumbnailFilename);
+            if (Files.exists(thumbnail)) {
+                Files.setLastModifiedTime(thumbnail, FileTime.from(Instant.now()));
+            } else {
+                Files.createDirectories(thumbnail.getParent());
+                writeThumbnail(staged, thumbnail);
+            }
+
+            String filename = fileStorageService.storeContentAddressed(stagedName, contentHash, type.extension);
+            storeCompressedVariant(filename);
+
+            grievanceRepository.completeImageProcessing(
+                    grievanceId, Grievance.IMAGE_READY, filename, thumbnailFilename, contentHash);
+        } catch (IOException | RuntimeException ex) {
+            reject(grievanceId, staged, ex.getMessage());
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private enum ImageType {
+        JPEG(".jpg", new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }),
+        PNG(".png", new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' }),
+        GIF(".gif", new byte[] { 'G', 'I', 'F', '8' });
+
+        private final String extension;
+        private final byte[] magic;
+
+        ImageType(String extension, byte[] magic) {
+            this.extension = extension;
+            this.magic = magic;
+        }
+    }
+
+    // The declared content type and file name come from the client, so look at the bytes instead.
+    private ImageType sniffType(Path file) throws IOException {
+        byte[] header = new byte[8];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        for (ImageType type : ImageType.values()) {
+            if (read >= type.magic.length && Arrays.equals(header, 0, type.magic.length, type.magic, 0, type.magic.length)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream()); // the digest sees every byte read
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Written to a temporary name first so a concurrent upload of the same photo never sees a partial thumbnail.
+    private void writeThumbnail(Path source, Path target) throws IOException {
+        BufferedImage image = readDownsampled(source);
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE); // transparent PNG/GIF areas
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        Path partial = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            if (!ImageIO.write(thumbnail, "jpg", partial.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            fileStorageService.deleteQuietly(partial);
+        }
+    }
+
+    // Decodes only every n-th pixel of large photos so a 12-megapixel upload never sits fully in memory.
+    private BufferedImage readDownsampled(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unreadable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Kept only where gzip actually saves space, which in practice means some PNGs. Optional: the image is served either way.
+    private void storeCompressedVariant(String filename) {
+        try {
+            fileStorageService.storeCompressedVariant(filename);
+        } catch (IOException ex) {
+            System.out.println("Could not write a compressed variant of " + filename + ": " + ex.getMessage());
+        }
+    }
+
+    private void reject(Long grievanceId, Path staged, String reason) {
+        fileStorageService.deleteQuietly(staged);
+        grievanceRepository.completeImageProcessing(grievanceId, Grievance.IMAGE_REJECTED, null, null, null);
+        System.out.println("Rejected image for grievance " + grievanceId + ": " + reason);
+    }
+}
@@ -2,22 +2,34 @@ package com.sumitcoder.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.sumitcoder.dto.CursorPageDto;
 import com.sumitcoder.dto.GrievanceCommentDto;
 import com.sumitcoder.dto.GrievanceDto;
 import com.sumitcoder.entity.Grievance;
 import com.sumitcoder.entity.GrievanceComment;
+import com.sumitcoder.exception.BadRequestException;
 import com.sumitcoder.exception.ResourceNotFoundException;
 import com.sumitcoder.repository.GrievanceCommentRepository;
 import com.sumitcoder.repository.GrievanceRepository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class GrievanceService {
@@ -31,29 +43,73 @@ public class GrievanceService {
     @Autowired
     private GrievanceCommentRepository grievanceCommentRepository;
 
-    @Transactional
+    @Autowired
+    private GrievanceImageProcessor grievanceImageProcessor;
+
+    private static final Sort COMMENT_ORDER = Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id")); // Show oldest comments first
+
+    /**
+     * UPDATED: The image is only streamed to the staging folder here, before any database work,
+     * and the grievance is saved straight away with the image PENDING. Validation, hashing and
+     * thumbnailing run on the image processing executor after the row is committed.
+     * Deliberately not @Transactional, so no connection is held while the upload is copied.
+     */
     public GrievanceDto createGrievance(GrievanceDto grievanceDto, MultipartFile imageFile) {
+        String stagedName = null;
+        if (imageFile != null && !imageFile.isEmpty()) {
+            stagedName = fileStorageService.stageUpload(imageFile);
+        }
+
         Grievance grievance = new Grievance();
         grievance.setTrackingId(generateTrackingId());
         grievance.setSubject(grievanceDto.getSubject());
         grievance.setContent(grievanceDto.getContent());
         grievance.setContactInfo(grievanceDto.getContactInfo());
 
-        if (imageFile != null && !imageFile.isEmpty()) {
-            String filename = fileStorageService.storeFile(imageFile);
-            grievance.setImageFilename(filename);
+        if (stagedName != null) {
+            grievance.setImageFilename(stagedName);
+            grievance.setImageStatus(Grievance.IMAGE_PENDING);
         }
-        
-        Grievance savedGrievance = grievanceRepository.save(grievance);
-        return convertToDto(savedGrievance);
+
+        Grievance savedGrievance;
+        try {
+            savedGrievance = grievanceRepository.save(grievance);
+        } catch (RuntimeException ex) {
+            if (stagedName != null) {
+                fileStorageService.deleteQuietly(fileStorageService.getStagedFile(stagedName));
+            }
+            throw ex;
+        }
+        if (stagedName != null) {
+            grievanceImageProcessor.process(savedGrievance.getId(), stagedName);
+        }
+        return convertToDto(savedGrievance, 0L);
     }
 
     /**
      * UPDATED: This method now fetches grievances in a paginated format.
+     * Each grievance carries only its comment count, filled by one grouped query for the whole page.
      */
     public Page<GrievanceDto> getAllGrievances(Pageable pageable) {
         Page<Grievance> grievancesPage = grievanceRepository.findAll(pageable);
-        return grievancesPage.map(this::convertToDto);
+        Map<Long, Long> commentCounts = countComments(grievancesPage.getContent());
+        return grievancesPage.map(grievance -> convertToDto(grievance, commentCounts));
+    }
+
+    /**
+     * Keyset-paginated variant of getAllGrievances, newest first.
+     * @param cursor The cursor returned with the previous slice, or null for the first slice.
+     */
+    public CursorPageDto<GrievanceDto> scrollGrievances(String cursor, int size) {
+        Map<String, Function<String, Object>> keyTypes = new LinkedHashMap<>();
+        keyTypes.put("createdAt", LocalDateTime::parse);
+        keyTypes.put("id", Long::valueOf);
+        ScrollPosition position = KeysetCursors.decode(cursor, keyTypes);
+
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        Window<Grievance> window = grievanceRepository.findBy(position, KeysetCursors.limit(size), sort);
+        Map<Long, Long> commentCounts = countComments(window.getContent());
+        return KeysetCursors.toCursorPage(window, grievance -> convertToDto(grievance, commentCounts));
     }
 
     @Transactional
@@ -63,13 +119,34 @@ public class GrievanceService {
 
         grievance.setStatus(status);
         Grievance updatedGrievance = grievanceRepository.save(grievance);
-        return convertToDto(updatedGrievance);
+        return convertToDto(updatedGrievance, grievanceCommentRepository.countByGrievanceId(id));
     }
 
     public GrievanceDto getGrievanceByTrackingId(String trackingId) {
-        Grievance grievance = grievanceRepository.findByTrackingId(trackingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Grievance not found with tracking id: " + trackingId));
-        return convertToDto(grievance);
+        Grievance grievance = findByTrackingIdOrThrow(trackingId);
+        return convertToDto(grievance, grievanceCommentRepository.countByGrievanceId(grievance.getId()));
+    }
+
+    /**
+     * NEW: A page of one grievance's comments, oldest first.
+     */
+    public Page<GrievanceCommentDto> getComments(Long grievanceId, int page, int size) {
+        PageRequest pageRequest = commentPage(page, size);
+        if (!grievanceRepository.existsById(grievanceId)) {
+            throw new ResourceNotFoundException("Grievance not found with id: " + grievanceId);
+        }
+        return grievanceCommentRepository.findByGrievanceId(grievanceId, pageRequest)
+                .map(this::convertCommentToDto);
+    }
+
+    /**
+     * NEW: Public variant of getComments, addressed by tracking id.
+     */
+    public Page<GrievanceCommentDto> getCommentsByTrackingId(String trackingId, int page, int size) {
+        PageRequest pageRequest = commentPage(page, size);
+        Grievance grievance = findByTrackingIdOrThrow(trackingId);
+        return grievanceCommentRepository.findByGrievanceId(grievance.getId(), pageRequest)
+                .map(this::convertCommentToDto);
     }
 
     /**
@@ -90,7 +167,35 @@ public class GrievanceService {
 
     // --- Helper Methods ---
 
-    private GrievanceDto convertToDto(Grievance grievance) {
+    private PageRequest commentPage(int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page number must not be negative.");
+        }
+        return PageRequest.of(page, KeysetCursors.pageSize(size), COMMENT_ORDER);
+    }
+
+    private Grievance findByTrackingIdOrThrow(String trackingId) {
+        return grievanceRepository.findByTrackingId(trackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Grievance not found with tracking id: " + trackingId));
+    }
+
+    private Map<Long, Long> countComments(Collection<Grievance> grievances) {
+        Map<Long, Long> commentCounts = new HashMap<>();
+        if (grievances.isEmpty()) {
+            return commentCounts;
+        }
+        List<Long> ids = grievances.stream().map(Grievance::getId).toList();
+        for (GrievanceCommentRepository.CommentCount count : grievanceCommentRepository.countByGrievanceIds(ids)) {
+            commentCounts.put(count.getGrievanceId(), count.getCommentCount());
+        }
+        return commentCounts;
+    }
+
+    private GrievanceDto convertToDto(Grievance grievance, Map<Long, Long> commentCounts) {
+        return convertToDto(grievance, commentCounts.getOrDefault(grievance.getId(), 0L));
+    }
+
+    private GrievanceDto convertToDto(Grievance grievance, long commentCount) {
         GrievanceDto dto = new GrievanceDto();
         dto.setId(grievance.getId());
         dto.setTrackingId(grievance.getTrackingId());
@@ -100,23 +205,27 @@ public class GrievanceService {
         dto.setStatus(grievance.getStatus());
         dto.setCreatedAt(grievance.getCreatedAt());
 
-        if (grievance.getImageFilename() != null) {
-            String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/uploads/")
-                    .path(grievance.getImageFilename())
-                    .toUriString();
-            dto.setImageUrl(imageUrl);
+        dto.setImageStatus(grievance.getImageStatus());
+        // A PENDING image only exists in the staging folder, which is not served
+        boolean imageServed = grievance.getImageStatus() == null || Grievance.IMAGE_READY.equals(grievance.getImageStatus());
+        if (grievance.getImageFilename() != null && imageServed) {
+            dto.setImageUrl(toUploadUrl(grievance.getImageFilename()));
         }
-        
-        if (grievance.getComments() != null) {
-            dto.setComments(grievance.getComments().stream()
-                    .map(this::convertCommentToDto)
-                    .collect(Collectors.toList()));
+        if (grievance.getThumbnailFilename() != null && imageServed) {
+            dto.setThumbnailUrl(toUploadUrl(grievance.getThumbnailFilename()));
         }
 
+        dto.setCommentCount(commentCount);
         return dto;
     }
 
+    private String toUploadUrl(String filename) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/uploads/")
+                .path(filename)
+                .toUriString();
+    }
+
     private GrievanceCommentDto convertCommentToDto(GrievanceComment comment) {
         GrievanceCommentDto dto = new GrievanceCommentDto();
         dto.setId(comment.getId());
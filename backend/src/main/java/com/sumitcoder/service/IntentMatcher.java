@@ -0,0 +1,168 @@
+package com.sumitcoder.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classifies a message against a declarative table of intents in a single pass.
+ * Every intent is a list of keyword groups; it matches when at least one keyword of each group
+ * occurs in the message. All keywords are compiled once into an Aho-Corasick automaton, so a
+ * message is scanned exactly once however many keywords there are, and nothing is allocated per
+ * message. Matching is case-insensitive and, like String.contains, matches keywords anywhere
+ * in the text. When several intents match, the one declared first wins.
+ */
+final class IntentMatcher<T> {
+
+    private final List<T> intents;
+    private final long[] requiredGroups;
+
+    // Automaton: per state, the sorted outgoing characters with their target states,
+    // the failure link, and the bit mask of keyword groups recognised on reaching it.
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final long[] output;
+
+    private IntentMatcher(List<T> intents, long[] requiredGroups, List<String> keywords, List<Integer> keywordGroups) {
+        this.intents = intents;
+        this.requiredGroups = requiredGroups;
+
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Long> outputs = new ArrayList<>();
+        trie.add(new HashMap<>());
+        outputs.add(0L);
+        for (int k = 0; k < keywords.size(); k++) {
+            int state = 0;
+            for (char c : keywords.get(k).toCharArray()) {
+                char lower = Character.toLowerCase(c);
+                Integer next = trie.get(state).get(lower);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    outputs.add(0L);
+                    trie.get(state).put(lower, next);
+                }
+                state = next;
+            }
+            outputs.set(state, outputs.get(state) | (1L << keywordGroups.get(k)));
+        }
+
+        int states = trie.size();
+        transitionChars = new char[states][];
+        transitionTargets = new int[states][];
+        failure = new int[states];
+        output = new long[states];
+        for (int s = 0; s < states; s++) {
+            Character[] chars = trie.get(s).keySet().toArray(new Character[0]);
+            Arrays.sort(chars);
+            transitionChars[s] = new char[chars.length];
+            transitionTargets[s] = new int[chars.length];
+            for (int i = 0; i < chars.length; i++) {
+                transitionChars[s][i] = chars[i];
+                transitionTargets[s][i] = trie.get(s).get(chars[i]);
+            }
+            output[s] = outputs.get(s);
+        }
+
+        // Breadth-first pass to set failure links and merge the outputs of suffix states.
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int target : transitionTargets[0]) {
+            failure[target] = 0;
+            queue[tail++] = target;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                char c = transitionChars[state][i];
+                int target = transitionTargets[state][i];
+                int fallback = failure[state];
+                while (fallback != 0 && next(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int suffix = next(fallback, c);
+                failure[target] = (suffix >= 0 && suffix != target) ? suffix : 0;
+                output[target] |= output[failure[target]];
+                queue[tail++] = target;
+            }
+        }
+    }
+
+    static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return The first declared intent whose keyword groups all occur in the text, or null if none does.
+     */
+    T classify(CharSequence text) {
+        long matched = matchGroups(text);
+        for (int i = 0; i < intents.size(); i++) {
+            if ((matched & requiredGroups[i]) == requiredGroups[i]) {
+                return intents.get(i);
+            }
+        }
+        return null;
+    }
+
+    private long matchGroups(CharSequence text) {
+        long matched = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int target = next(state, c);
+            while (target < 0 && state != 0) {
+                state = failure[state];
+                target = next(state, c);
+            }
+            state = target < 0 ? 0 : target;
+            matched |= output[state];
+        }
+        return matched;
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    static final class Builder<T> {
+
+        private final List<T> intents = new ArrayList<>();
+        private final List<Long> requiredGroups = new ArrayList<>();
+        private final List<String> keywords = new ArrayList<>();
+        private final List<Integer> keywordGroups = new ArrayList<>();
+        private int groupCount;
+
+        /**
+         * Declares an intent. Intents declared earlier take precedence over later ones.
+         * @param keywordGroups Each group lists alternative keywords; every group must match.
+         */
+        Builder<T> intent(T intent, String[]... keywordGroups) {
+            long required = 0;
+            for (String[] group : keywordGroups) {
+                if (groupCount == Long.SIZE) {
+                    throw new IllegalStateException("An IntentMatcher supports at most 64 keyword groups");
+                }
+                int bit = groupCount++;
+                required |= 1L << bit;
+                for (String keyword : group) {
+                    keywords.add(keyword);
+                    this.keywordGroups.add(bit);
+                }
+            }
+            intents.add(intent);
+            requiredGroups.add(required);
+            return this;
+        }
+
+        IntentMatcher<T> build() {
+            long[] required = requiredGroups.stream().mapToLong(Long::longValue).toArray();
+            return new IntentMatcher<>(List.copyOf(intents), required, keywords, keywordGroups);
+        }
+    }
+}
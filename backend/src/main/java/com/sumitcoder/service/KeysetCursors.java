@@ -0,0 +1,107 @@
+package com.sumitcoder.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import com.sumitcoder.dto.CursorPageDto;
+import com.sumitcoder.exception.BadRequestException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts keyset scroll positions to and from the opaque cursor strings handed to clients.
+ * A cursor is the URL-safe Base64 form of the last row's sort keys, e.g. "createdAt=...&id=42".
+ */
+final class KeysetCursors {
+
+    /** Upper bound on a slice, so a single request cannot pull a whole table. */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private KeysetCursors() {
+    }
+
+    /**
+     * Converts a client-supplied slice size into a query limit, capped at MAX_PAGE_SIZE.
+     * @throws BadRequestException if the size is zero or negative.
+     */
+    static Limit limit(int size) {
+        return Limit.of(pageSize(size));
+    }
+
+    /**
+     * Checks a client-supplied page or slice size and caps it at MAX_PAGE_SIZE; also used by the
+     * offset-paged comment lists.
+     * @throws BadRequestException if the size is zero or negative.
+     */
+    static int pageSize(int size) {
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be a positive number.");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Decodes a client cursor into a forward keyset position.
+     * @param cursor The cursor from a previous slice, or null/blank for the first slice.
+     * @param keyTypes How to parse each sort key, in sort order (e.g. "id" -> Long::valueOf).
+     */
+    static ScrollPosition decode(String cursor, Map<String, Function<String, Object>> keyTypes) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                String name = pair.substring(0, separator);
+                String value = URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                Function<String, Object> parser = keyTypes.get(name);
+                if (parser == null) {
+                    throw new IllegalArgumentException("Unexpected cursor key: " + name);
+                }
+                keys.put(name, parser.apply(value));
+            }
+            if (!keys.keySet().equals(keyTypes.keySet())) {
+                throw new IllegalArgumentException("Cursor keys do not match this list");
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid pagination cursor.");
+        }
+    }
+
+    /**
+     * Builds the response slice for a window, with a cursor pointing after its last element.
+     */
+    static <E, D> CursorPageDto<D> toCursorPage(Window<E> window, Function<E, D> converter) {
+        List<D> content = window.getContent().stream().map(converter).toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = encode(position.getKeys());
+        }
+        return new CursorPageDto<>(content, window.hasNext(), nextCursor);
+    }
+
+    private static String encode(Map<String, ?> keys) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, ?> key : keys.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append(key.getKey()).append('=')
+                    .append(URLEncoder.encode(String.valueOf(key.getValue()), StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
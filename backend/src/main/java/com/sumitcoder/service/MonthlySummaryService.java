@@ -0,0 +1,125 @@
+package com.sumitcoder.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sumitcoder.dto.VillageMonthlySummaryDto;
+import com.sumitcoder.entity.DistributionRecord;
+import com.sumitcoder.entity.VillageMonthlySummary;
+import com.sumitcoder.repository.DistributionRecordRepository;
+import com.sumitcoder.repository.VillageMonthlySummaryRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-(village, year, month) rollup of distribution records.
+ * DistributionService calls into this service in the same transaction that writes the records,
+ * so the rollup and the records are committed (or rolled back) together.
+ */
+@Service
+public class MonthlySummaryService {
+
+    @Autowired
+    private VillageMonthlySummaryRepository summaryRepository;
+
+    @Autowired
+    private DistributionRecordRepository distributionRecordRepository;
+
+    /**
+     * Adds newly created records to the rollup, with one upsert per affected (village, month).
+     * @param records The records just written, with their entitlement snapshot set.
+     */
+    @Transactional
+    public void addRecords(Collection<DistributionRecord> records) {
+        Map<SummaryKey, Delta> deltas = new HashMap<>();
+        for (DistributionRecord record : records) {
+            SummaryKey key = new SummaryKey(villageOf(record), record.getDistributionDate().getYear(),
+                    record.getDistributionDate().getMonthValue());
+            deltas.computeIfAbsent(key, k -> new Delta()).add(record);
+        }
+        deltas.forEach((key, delta) -> summaryRepository.addToSummary(key.villageName(), key.year(), key.month(),
+                delta.families, delta.distributed, delta.entitled, delta.deficit));
+    }
+
+    /**
+     * Answers from the rollup table, without touching distribution_records.
+     * @param village Restricts the result to one village (optional).
+     */
+    public List<VillageMonthlySummaryDto> getMonthlySummary(int year, int month, String village) {
+        List<VillageMonthlySummary> summaries = (village == null || village.isBlank())
+                ? summaryRepository.findByYearAndMonthOrderByVillageNameAsc(year, month)
+                : summaryRepository.findByYearAndMonthAndVillageName(year, month, village);
+        return summaries.stream().map(this::convertToDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Rebuilds all summary rows of one year from distribution_records.
+     * @return The number of summary rows written.
+     */
+    @Transactional
+    public int rebuildYear(int year) {
+        summaryRepository.deleteByYear(year);
+        return summaryRepository.rebuildFromRecords(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /**
+     * Rebuilds the rollup for every year that has distribution records (used to backfill).
+     * @return The number of summary rows written.
+     */
+    @Transactional
+    public int rebuildAll() {
+        LocalDate earliest = distributionRecordRepository.findEarliestDistributionDate();
+        LocalDate latest = distributionRecordRepository.findLatestDistributionDate();
+        if (earliest == null || latest == null) {
+            return 0;
+        }
+        int rows = 0;
+        for (int year = earliest.getYear(); year <= latest.getYear(); year++) {
+            rows += rebuildYear(year);
+        }
+        return rows;
+    }
+
+    // --- Helper Methods ---
+
+    private String villageOf(DistributionRecord record) {
+        return record.getVillageName() != null ? record.getVillageName() : "";
+    }
+
+    private VillageMonthlySummaryDto convertToDto(VillageMonthlySummary summary) {
+        VillageMonthlySummaryDto dto = new VillageMonthlySummaryDto();
+        dto.setVillageName(summary.getVillageName());
+        dto.setYear(summary.getYear());
+        dto.setMonth(summary.getMonth());
+        dto.setFamiliesServed(summary.getFamiliesServed());
+        dto.setKgDistributed(summary.getKgDistributed());
+        dto.setKgEntitled(summary.getKgEntitled());
+        dto.setTotalDeficitKg(summary.getTotalDeficitKg());
+        return dto;
+    }
+
+    private record SummaryKey(String villageName, int year, int month) {
+    }
+
+    private static class Delta {
+        private long families;
+        private BigDecimal distributed = BigDecimal.ZERO;
+        private BigDecimal entitled = BigDecimal.ZERO;
+        private BigDecimal deficit = BigDecimal.ZERO;
+
+        void add(DistributionRecord record) {
+            BigDecimal entitlement = record.getEntitlementKg();
+            families++;
+            distributed = distributed.add(record.getRiceReceivedKg());
+            entitled = entitled.add(entitlement);
+            deficit = deficit.add(entitlement.subtract(record.getRiceReceivedKg()).max(BigDecimal.ZERO));
+        }
+    }
+}
@@ -1,18 +1,81 @@
 package com.sumitcoder.service;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import com.sumitcoder.config.AsyncConfig;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.exception.BadRequestException;
+import com.sumitcoder.repository.FamilyRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 public class QrCodeService {
 
+    // QRCodeWriter keeps no state between calls, so one instance is shared by all threads.
+    private static final QRCodeWriter QR_CODE_WRITER = new QRCodeWriter();
+
+    private static final Map<EncodeHintType, Object> QR_HINTS = new EnumMap<>(EncodeHintType.class);
+    static {
+        QR_HINTS.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+        QR_HINTS.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        QR_HINTS.put(EncodeHintType.MARGIN, 2);
+    }
+
+    // Payloads that are safe to use verbatim as cache file names; anything else is hashed.
+    private static final Pattern SAFE_CACHE_KEY = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    @Qualifier(AsyncConfig.QR_CODE_EXECUTOR)
+    private ThreadPoolTaskExecutor qrCodeExecutor;
+
+    @Value("${app.qr.cache-dir:./qr-cache}")
+    private String cacheDir;
+
+    @Value("${app.qr.batch.max-families:5000}")
+    private int maxBatchFamilies;
+
     /**
      * Generates a QR code image from the given text.
      * @param text The text to encode into the QR code (e.g., a family's contact number).
@@ -21,11 +84,157 @@ public class QrCodeService {
      * @return A byte array representing the PNG image of the QR code.
      */
     public byte[] generateQrCodeImage(String text, int width, int height) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, width, height);
+        BitMatrix bitMatrix = QR_CODE_WRITER.encode(text, BarcodeFormat.QR_CODE, width, height, QR_HINTS);
 
         ByteArrayOutputStream pngOutputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", pngOutputStream);
+        ImageIO.write(toBinaryImage(bitMatrix), "PNG", pngOutputStream);
         return pngOutputStream.toByteArray();
     }
+
+    /**
+     * NEW: Square QR code PNG served from the disk cache. A QR code depends only on its text and
+     * size, so a cached image never goes stale; the first request for a pair generates and stores it.
+     */
+    public byte[] getQrCodeImage(String text, int size) {
+        Path cached = Paths.get(cacheDir).resolve(cacheKey(text) + "-" + size + ".png");
+        try {
+            if (Files.exists(cached)) {
+                return Files.readAllBytes(cached);
+            }
+            byte[] png = generateQrCodeImage(text, size, size);
+            Files.createDirectories(cached.getParent());
+            // Written under a temporary name first, so concurrent readers never see a partial file
+            Path partial = cached.resolveSibling(cached.getFileName() + "." + UUID.randomUUID() + ".part");
+            Files.write(partial, png);
+            Files.move(partial, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return png;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not generate the QR code", ex);
+        } catch (WriterException ex) {
+            throw new IllegalStateException("Could not encode the QR code", ex);
+        }
+    }
+
+    /**
+     * NEW: The text a family's ration card QR code carries: its uniqueFamilyId,
+     * or its contact number for families that have not been given one.
+     */
+    public static String qrPayload(Family family) {
+        return family.getUniqueFamilyId() != null ? family.getUniqueFamilyId() : family.getContactNumber();
+    }
+
+    /**
+     * NEW: The families of a village (case-insensitive), or every family when villageName is null,
+     * ordered by id. Rejects requests matching more than app.qr.batch.max-families families.
+     */
+    public List<Family> findFamiliesForQrBatch(String villageName) {
+        Sort byId = Sort.by("id");
+        Limit limit = Limit.of(maxBatchFamilies + 1);
+        List<Family> families = villageName != null
+                ? familyRepository.findByVillageNameIgnoreCase(villageName, byId, limit)
+                : familyRepository.findBy(byId, limit);
+        if (families.size() > maxBatchFamilies) {
+            throw new BadRequestException("More than " + maxBatchFamilies + " families match; narrow the request to one village.");
+        }
+        return families;
+    }
+
+    /**
+     * NEW: Writes a ZIP of ration card QR codes (one PNG per family) plus an index.csv that maps
+     * each image to its family. Images are generated in parallel on the QR code executor, at most a few per core ahead of
+     * the entry being written, so memory stays flat however many families are included.
+     * PNGs are already compressed, so entries are STORED rather than deflated again.
+     * @param families The families to print cards for, in the order they should appear.
+     * @param size The width and height of each QR code in pixels.
+     * @return The number of QR codes written.
+     */
+    public int writeQrCodeZip(List<Family> families, int size, OutputStream out) throws IOException {
+        int aheadLimit = qrCodeExecutor.getMaxPoolSize() * 4;
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        StringBuilder index = new StringBuilder("file,uniqueFamilyId,familyHeadName,contactNumber,villageName\n");
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        int submitted = 0;
+        int written = 0;
+        while (written < families.size()) {
+            while (submitted < families.size() && pending.size() < aheadLimit) {
+                String payload = qrPayload(families.get(submitted));
+                pending.add(qrCodeExecutor.submit(() -> getQrCodeImage(payload, size)));
+                submitted++;
+            }
+            Family family = families.get(written);
+            String entryName = cacheKey(qrPayload(family)) + ".png";
+            writeStoredEntry(zip, entryName, await(pending.poll()));
+            appendCsvRow(index, entryName, family.getUniqueFamilyId(), family.getFamilyHeadName(),
+                    family.getContactNumber(), family.getVillageName());
+            written++;
+        }
+        writeStoredEntry(zip, "index.csv", index.toString().getBytes(StandardCharsets.UTF_8));
+        zip.finish();
+        return written;
+    }
+
+    // --- Helper Methods ---
+
+    // One bit per pixel: about 1/10 the PNG size of MatrixToImageWriter's RGB image, and faster to encode.
+    private BufferedImage toBinaryImage(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = image.getRaster();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.setSample(x, y, 0, matrix.get(x, y) ? 0 : 1);
+            }
+        }
+        return image;
+    }
+
+    private String cacheKey(String text) {
+        if (SAFE_CACHE_KEY.matcher(text).matches()) {
+            return text;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating QR codes", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("Could not generate a QR code", ex.getCause());
+        }
+    }
+
+    private void writeStoredEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private void appendCsvRow(StringBuilder csv, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            if (values[i] != null) {
+                csv.append('"').append(values[i].replace("\"", "\"\"")).append('"');
+            }
+        }
+        csv.append('\n');
+    }
 }
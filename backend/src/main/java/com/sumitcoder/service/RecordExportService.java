@@ -0,0 +1,139 @@
+package com.sumitcoder.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sumitcoder.dto.DistributionExportRow;
+import com.sumitcoder.repository.DistributionRecordRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class RecordExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String CSV_HEADER = "id,distributionDate,familyId,uniqueFamilyId,familyHeadName,"
+            + "contactNumber,villageName,numMembers,riceReceivedKg,entitlementKg,deficitKg";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DistributionRecordRepository distributionRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rice-per-person-kg}")
+    private double ricePerPersonKg;
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    /**
+     * Writes every distribution record of a year (or of one month in it) to the given stream.
+     * Rows are read from a database cursor and written one at a time, so memory stays flat
+     * regardless of how many rows are exported.
+     * @param year The year to export.
+     * @param month The month to export (optional; the whole year when null).
+     * @param format Either "csv" or "ndjson".
+     * @param out The stream to write to, typically the HTTP response body.
+     * @return The number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportRecords(int year, Integer month, String format, OutputStream out) throws IOException {
+        LocalDate startDate = month != null ? LocalDate.of(year, month, 1) : LocalDate.of(year, 1, 1);
+        LocalDate endDate = month != null ? startDate.withDayOfMonth(startDate.lengthOfMonth()) : LocalDate.of(year, 12, 31);
+        boolean csv = FORMAT_CSV.equals(format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<DistributionExportRow> rows = distributionRecordRepository.streamExportRows(startDate, endDate)) {
+            Iterator<DistributionExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                DistributionExportRow row = iterator.next();
+                calculateEntitlement(row);
+                if (csv) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // --- Helper Methods ---
+
+    // The entitlement comes from the snapshot on the record; only rows not yet backfilled
+    // fall back to the family's current size.
+    private void calculateEntitlement(DistributionExportRow row) {
+        BigDecimal entitlement = row.getEntitlementKg();
+        if (entitlement == null) {
+            entitlement = BigDecimal.valueOf(row.getNumMembers() * ricePerPersonKg);
+            row.setEntitlementKg(entitlement);
+        }
+        row.setDeficitKg(entitlement.subtract(row.getRiceReceivedKg()).max(BigDecimal.ZERO));
+    }
+
+    private void writeCsvRow(Writer writer, DistributionExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(row.getDistributionDate().toString());
+        writer.write(',');
+        writer.write(String.valueOf(row.getFamilyId()));
+        writer.write(',');
+        writeCsvText(writer, row.getUniqueFamilyId());
+        writer.write(',');
+        writeCsvText(writer, row.getFamilyHeadName());
+        writer.write(',');
+        writeCsvText(writer, row.getContactNumber());
+        writer.write(',');
+        writeCsvText(writer, row.getVillageName());
+        writer.write(',');
+        writer.write(String.valueOf(row.getNumMembers()));
+        writer.write(',');
+        writer.write(row.getRiceReceivedKg().toPlainString());
+        writer.write(',');
+        writer.write(row.getEntitlementKg().toPlainString());
+        writer.write(',');
+        writer.write(row.getDeficitKg().toPlainString());
+        writer.write('\n');
+    }
+
+    // Quotes a text field only when it contains a separator, quote or line break (RFC 4180).
+    private void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
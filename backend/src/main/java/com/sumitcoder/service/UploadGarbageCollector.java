@@ -0,0 +1,52 @@
+package com.sumitcoder.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sumitcoder.repository.GrievanceRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Removes uploaded files whose reference count has dropped to zero: stored images and thumbnails no
+ * grievance points at any more, and staged uploads that were never attached to a saved grievance.
+ */
+@Service
+public class UploadGarbageCollector {
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${app.uploads.gc.grace-period:6h}")
+    private Duration gracePeriod;
+
+    @Scheduled(cron = "${app.uploads.gc.cron:0 30 3 * * *}")
+    public void scheduledCollection() {
+        FileStorageService.GarbageCollectionResult result = collectGarbage();
+        if (result.getDeletedFiles() > 0) {
+            System.out.println("Upload garbage collection removed " + result.getDeletedFiles()
+                    + " orphaned files (" + result.getFreedBytes() + " bytes).");
+        }
+    }
+
+    public FileStorageService.GarbageCollectionResult collectGarbage() {
+        // Read the references before listing files: anything referenced after this point is newer
+        // than the grace period, because storing a file refreshes its timestamp.
+        Set<String> referenced = new HashSet<>(grievanceRepository.findReferencedImageFilenames());
+        referenced.addAll(grievanceRepository.findReferencedThumbnailFilenames());
+        try {
+            return fileStorageService.collectGarbage(referenced, gracePeriod);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not collect unreferenced uploads", ex);
+        }
+    }
+}
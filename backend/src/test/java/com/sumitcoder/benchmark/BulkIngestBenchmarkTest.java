@@ -0,0 +1,84 @@
+package com.sumitcoder.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sumitcoder.dto.BulkIngestResponseDto;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.repository.DistributionRecordRepository;
+import com.sumitcoder.service.DistributionService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the per-row public submission path with the bulk ingestion path.
+ * Opt-in, because it writes thousands of rows: run with
+ * {@code mvn test -Dtest=BulkIngestBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkIngestBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2000);
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private DistributionRecordRepository distributionRecordRepository;
+
+    @Test
+    void compareBulkWithPerRowIngestion() {
+        // Warm up both paths so the first measurement does not pay for class loading.
+        ingestPerRow(rows("70", 200));
+        distributionService.createRecordsInBulk(rows("71", 200));
+
+        long before = distributionRecordRepository.count();
+
+        long start = System.nanoTime();
+        ingestPerRow(rows("80", ROWS));
+        long perRowNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        BulkIngestResponseDto response = distributionService.createRecordsInBulk(rows("81", ROWS));
+        long bulkNanos = System.nanoTime() - start;
+
+        assertEquals(ROWS, response.getCreated());
+        assertEquals(before + 2L * ROWS, distributionRecordRepository.count());
+
+        System.out.printf("Per-row ingestion: %d rows in %d ms (%.0f rows/s)%n",
+                ROWS, perRowNanos / 1_000_000, ROWS / (perRowNanos / 1e9));
+        System.out.printf("Bulk ingestion:    %d rows in %d ms (%.0f rows/s)%n",
+                ROWS, bulkNanos / 1_000_000, ROWS / (bulkNanos / 1e9));
+    }
+
+    private void ingestPerRow(List<DistributionRecordDto> rows) {
+        for (DistributionRecordDto row : rows) {
+            distributionService.createPublicRecord(row);
+        }
+    }
+
+    private List<DistributionRecordDto> rows(String contactPrefix, int count) {
+        List<DistributionRecordDto> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            DistributionRecordDto row = new DistributionRecordDto();
+            row.setFamilyHeadName("Family Head " + i);
+            row.setContactNumber(String.format("%s%08d", contactPrefix, i));
+            row.setNumMembers(1 + i % 8);
+            row.setVillageName("Village " + i % 25);
+            row.setRiceReceivedKg(BigDecimal.valueOf(5L * (1 + i % 8)));
+            row.setDistributionDate(LocalDate.of(2025, 1 + i % 12, 1 + i % 28));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
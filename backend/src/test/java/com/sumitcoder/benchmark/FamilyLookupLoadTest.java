@@ -0,0 +1,115 @@
+package com.sumitcoder.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.repository.FamilyRepository;
+import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.FamilyService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Replays a burst of counter autofill lookups, first straight against the repository and then
+ * through the familiesByContact cache, and reports the database round-trips of each.
+ * Opt-in: run with {@code mvn test -Dtest=FamilyLookupLoadTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FamilyLookupLoadTest {
+
+    private static final int FAMILIES = 500;
+    private static final int LOOKUPS = 20_000;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cacheCutsDatabaseRoundTrips() throws Exception {
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < FAMILIES; i++) {
+            rows.add(row(contact(i), "Head " + i));
+        }
+        distributionService.createRecordsInBulk(rows);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long uncachedMillis = replay(familyRepository::findByContactNumber);
+        long uncachedStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long cachedMillis = replay(familyService::getFamilyByContactNumber);
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Uncached: %d lookups, %d DB round-trips, %d ms%n", LOOKUPS, uncachedStatements, uncachedMillis);
+        System.out.printf("Cached:   %d lookups, %d DB round-trips, %d ms%n", LOOKUPS, cachedStatements, cachedMillis);
+
+        // A new submission must evict the cached entry, so the next lookup sees the update.
+        distributionService.createPublicRecord(row(contact(0), "Renamed Head"));
+        assertEquals("Renamed Head", familyService.getFamilyByContactNumber(contact(0)).orElseThrow().getFamilyHeadName());
+    }
+
+    // Lookups are skewed towards a few hundred numbers, plus some unknown ones, like a busy counter.
+    private long replay(Consumer<String> lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < LOOKUPS / THREADS; i++) {
+                    int family = random.nextInt(10) < 9 ? random.nextInt(FAMILIES) : FAMILIES + random.nextInt(50);
+                    lookup.accept(contact(family));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private String contact(int i) {
+        return String.format("66%08d", i);
+    }
+
+    private DistributionRecordDto row(String contactNumber, String headName) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName(headName);
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(4);
+        row.setVillageName("Rampur");
+        row.setRiceReceivedKg(BigDecimal.valueOf(20));
+        row.setDistributionDate(LocalDate.of(2025, 2, 1));
+        return row;
+    }
+}
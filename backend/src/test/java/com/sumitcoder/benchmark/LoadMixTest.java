@@ -0,0 +1,293 @@
+package com.sumitcoder.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.service.MonthlySummaryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * End-to-end load test: seeds a synthetic data set (SyntheticDataGenerator), then replays a
+ * distribution-day mix of public submissions, QR scans, autofill lookups, chatbot questions and
+ * admin paging over a real connector from many clients, and reports throughput, p50/p95/p99
+ * latency per operation and the time requests waited for a pooled database connection.
+ * The report is printed and written to target/load-test-report.json, so runs can be compared.
+ *
+ * Opt-in: run with {@code mvn test -Dtest=LoadMixTest -Dbenchmark=true}. The defaults run in
+ * a few minutes on H2 (MySQL mode); sizes and the mix are set with system properties, e.g.
+ * {@code -Dloadtest.families=2000000 -Dloadtest.grievances=300000 -Dloadtest.clients=128
+ * -Dloadtest.duration=300}. Millions of rows need a larger heap on H2, or point the test at a
+ * scratch MySQL with -Dspring.datasource.url=... (the test profile recreates the schema).
+ * Rate limiting and load shedding stay off as in the test profile, unless enabled with
+ * -Dapp.rate-limit.enabled=true / -Dapp.load-shedding.enabled=true.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadMixTest {
+
+    private static final int FAMILIES = Integer.getInteger("loadtest.families", 50_000);
+    private static final int MONTHS = Integer.getInteger("loadtest.months", 12);
+    private static final int GRIEVANCES = Integer.getInteger("loadtest.grievances", 20_000);
+    private static final int MAX_COMMENTS = Integer.getInteger("loadtest.max-comments", 30);
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup", 10);
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+
+    // Relative weights of the operations in the mix
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+    static {
+        MIX.put("submitForm", Integer.getInteger("loadtest.mix.submit-form", 15));
+        MIX.put("scanCard", Integer.getInteger("loadtest.mix.scan-card", 10));
+        MIX.put("autofill", Integer.getInteger("loadtest.mix.autofill", 35));
+        MIX.put("chatbot", Integer.getInteger("loadtest.mix.chatbot", 15));
+        MIX.put("adminRecords", Integer.getInteger("loadtest.mix.admin-records", 10));
+        MIX.put("adminGrievances", Integer.getInteger("loadtest.mix.admin-grievances", 10));
+        MIX.put("grievanceStatus", Integer.getInteger("loadtest.mix.grievance-status", 5));
+    }
+
+    private static final String[] QUESTIONS = {
+            "mere ghar me 5 log hai, kitna chawal milega", "How much rice for a family of 7 members please",
+            "What documents do I need to bring?", "chawal ka daam kya hai", "I need help, whom should I contact",
+            "Who are you?", "कृपया सहायता करें",
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.initial-admin.username}")
+    private String adminUsername;
+
+    @Value("${app.initial-admin.password}")
+    private String adminPassword;
+
+    @Value("${app.rice-per-person-kg}")
+    private double ricePerPersonKg;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    @Test
+    void distributionDayMix() throws Exception {
+        long start = System.nanoTime();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbcTemplate, SEED, ricePerPersonKg);
+        long records = generator.seedFamilies(FAMILIES, MONTHS);
+        long comments = generator.seedGrievances(GRIEVANCES, MAX_COMMENTS);
+        monthlySummaryService.rebuildAll();
+        System.out.printf("Seeded %d families, %d records, %d grievances and %d comments in %d s%n",
+                FAMILIES, records, GRIEVANCES, comments, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+
+        token = objectMapper.readTree(send(post("/api/auth/login",
+                "{\"username\":\"" + adminUsername + "\",\"password\":\"" + adminPassword + "\"}")).body()).get("token").asText();
+
+        run(WARMUP_SECONDS, SEED);
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").timer();
+        long acquiresBefore = acquire.count();
+        double acquireNanosBefore = acquire.totalTime(TimeUnit.NANOSECONDS);
+        LongAccumulator peakPending = new LongAccumulator(Math::max, 0);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakPending.accumulate(
+                (long) meterRegistry.get("hikaricp.connections.pending").gauge().value()), 0, 50, TimeUnit.MILLISECONDS);
+
+        Map<String, List<Long>> latencies = run(DURATION_SECONDS, SEED + 1);
+
+        sampler.shutdownNow();
+        long acquires = acquire.count() - acquiresBefore;
+        double acquireMillis = (acquire.totalTime(TimeUnit.NANOSECONDS) - acquireNanosBefore) / 1e6;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("families", FAMILIES);
+        report.put("records", records);
+        report.put("grievances", GRIEVANCES);
+        report.put("comments", comments);
+        report.put("clients", CLIENTS);
+        report.put("durationSeconds", DURATION_SECONDS);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long total = 0;
+        System.out.printf("%n%-18s %9s %9s %9s %9s %9s %7s%n", "operation", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+        for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).filter(l -> l >= 0).sorted().toArray();
+            long errors = entry.getValue().stream().filter(l -> l < 0).count();
+            int requests = entry.getValue().size();
+            total += requests;
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", requests);
+            stats.put("throughputPerSecond", (double) requests / DURATION_SECONDS);
+            stats.put("p50Millis", percentile(sorted, 0.50));
+            stats.put("p95Millis", percentile(sorted, 0.95));
+            stats.put("p99Millis", percentile(sorted, 0.99));
+            stats.put("errors", errors);
+            operations.put(entry.getKey(), stats);
+            System.out.printf("%-18s %9d %9.1f %9.1f %9.1f %9.1f %7d%n", entry.getKey(), requests, (double) requests / DURATION_SECONDS,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), errors);
+        }
+        report.put("operations", operations);
+        report.put("throughputPerSecond", (double) total / DURATION_SECONDS);
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("connectionAcquires", acquires);
+        pool.put("meanAcquireMillis", acquires > 0 ? acquireMillis / acquires : 0);
+        pool.put("totalAcquireMillis", acquireMillis);
+        pool.put("peakPendingThreads", peakPending.get());
+        report.put("connectionPool", pool);
+        System.out.printf("%nTotal: %.1f req/s. Pool: %d acquires, mean wait %.2f ms, %.0f ms waited in total, peak %d threads waiting%n",
+                (double) total / DURATION_SECONDS, acquires, acquires > 0 ? acquireMillis / acquires : 0, acquireMillis, peakPending.get());
+
+        File reportFile = new File("target/load-test-report.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        System.out.println("Report written to " + reportFile.getAbsolutePath());
+        assertTrue(total > 0);
+    }
+
+    // --- Helper Methods ---
+
+    // Runs the mix from CLIENTS threads for the given time; latencies in nanoseconds, -1 for an error
+    private Map<String, List<Long>> run(int seconds, long seed) throws Exception {
+        String[] operations = MIX.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream()).toArray(String[]::new);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger submissions = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<Map<String, List<Long>>>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            Random random = new Random(seed * 1000 + c);
+            futures.add(clients.submit(() -> {
+                Map<String, List<Long>> latencies = new LinkedHashMap<>();
+                while (System.nanoTime() < end) {
+                    String operation = operations[random.nextInt(operations.length)];
+                    HttpRequest request = request(operation, random, submissions);
+                    long started = System.nanoTime();
+                    long latency;
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latency = response.statusCode() < 400 ? System.nanoTime() - started : -1;
+                    } catch (Exception e) {
+                        latency = -1;
+                    }
+                    latencies.computeIfAbsent(operation, o -> new ArrayList<>()).add(latency);
+                }
+                return latencies;
+            }));
+        }
+        Map<String, List<Long>> merged = new LinkedHashMap<>();
+        MIX.keySet().forEach(operation -> merged.put(operation, new ArrayList<>()));
+        for (Future<Map<String, List<Long>>> future : futures) {
+            future.get().forEach((operation, values) -> merged.get(operation).addAll(values));
+        }
+        clients.shutdown();
+        return merged;
+    }
+
+    private HttpRequest request(String operation, Random random, AtomicInteger submissions) {
+        // Popular families come back more often, as at a real counter
+        int family = (int) Math.min(FAMILIES - 1, Math.abs(random.nextGaussian()) * FAMILIES / 3);
+        // Submissions fall in the months after the seeded ones; a family seen twice in a month is a duplicate
+        String date = SyntheticDataGenerator.FIRST_MONTH.plusMonths(MONTHS + random.nextInt(3)).plusDays(random.nextInt(25)).toString();
+        switch (operation) {
+            case "submitForm" -> {
+                // One in five submissions registers a new family
+                String contact = random.nextInt(5) == 0
+                        ? SyntheticDataGenerator.contactNumber(FAMILIES + 100_000 + submissions.incrementAndGet())
+                        : SyntheticDataGenerator.contactNumber(family);
+                return post("/api/records/public", "{\"familyHeadName\":\"Head\",\"contactNumber\":\"" + contact
+                        + "\",\"numMembers\":4,\"villageName\":\"" + SyntheticDataGenerator.village(family)
+                        + "\",\"riceReceivedKg\":20,\"distributionDate\":\"" + date + "\"}");
+            }
+            case "scanCard" -> {
+                return post("/api/records/public/scan", "{\"token\":\"" + SyntheticDataGenerator.contactNumber(family)
+                        + "\",\"riceReceivedKg\":20,\"distributionDate\":\"" + date + "\"}");
+            }
+            case "autofill" -> {
+                return get("/api/families/public/by-contact/" + SyntheticDataGenerator.contactNumber(family), false);
+            }
+            case "chatbot" -> {
+                return post("/api/chatbot/public/ask", "{\"question\":\"" + QUESTIONS[random.nextInt(QUESTIONS.length)] + "\"}");
+            }
+            case "adminRecords" -> {
+                // Mostly the first pages, sometimes deep into a month
+                int page = random.nextInt(10) < 8 ? random.nextInt(3) : random.nextInt(200);
+                LocalDate month = SyntheticDataGenerator.FIRST_MONTH.plusMonths(random.nextInt(MONTHS));
+                return get("/api/records?year=" + month.getYear() + "&month=" + month.getMonthValue() + "&page=" + page + "&size=20", true);
+            }
+            case "adminGrievances" -> {
+                return random.nextBoolean()
+                        ? get("/api/grievances/admin?page=" + random.nextInt(5) + "&size=20", true)
+                        : get("/api/grievances/public/status/" + SyntheticDataGenerator.trackingId(random.nextInt(GRIEVANCES)) + "/comments", false);
+            }
+            case "grievanceStatus" -> {
+                return get("/api/grievances/public/status/" + SyntheticDataGenerator.trackingId(random.nextInt(GRIEVANCES)), false);
+            }
+            default -> throw new IllegalArgumentException(operation);
+        }
+    }
+
+    private HttpRequest get(String path, boolean admin) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(60)).GET();
+        if (admin) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1e6;
+    }
+}
@@ -0,0 +1,160 @@
+package com.sumitcoder.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeds a reproducible, realistically shaped data set for load tests: families spread over
+ * villages with skewed sizes, one distribution record per family and month (most families
+ * served every month), and grievances with comment threads of varying length. Rows are written
+ * with JDBC batches in chunks, so millions of rows take minutes, not hours; the same seed always
+ * produces the same rows. The village monthly summaries are not touched, so callers rebuild
+ * them afterwards (MonthlySummaryService.rebuildAll).
+ */
+class SyntheticDataGenerator {
+
+    private static final int CHUNK_SIZE = 5000;
+
+    private static final String[] VILLAGE_STARTS = {"Ram", "Sita", "Kal", "Dev", "Har", "Shiv", "Gop", "Nand", "Bel", "Mohan"};
+    private static final String[] VILLAGE_ENDS = {"pur", "gaon", "nagar", "garh", "wadi"};
+
+    private static final String[] GRIEVANCE_SUBJECTS = {
+            "Short ration", "Shop closed on distribution day", "Name missing from list", "Poor quality rice", "Asked to pay extra"};
+
+    // The first month of synthetic records
+    static final LocalDate FIRST_MONTH = LocalDate.of(2023, 1, 1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final double ricePerPersonKg;
+
+    SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed, double ricePerPersonKg) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new Random(seed);
+        this.ricePerPersonKg = ricePerPersonKg;
+    }
+
+    /**
+     * Inserts the families and their records.
+     * @param families The number of families.
+     * @param months The months of records, starting at FIRST_MONTH; each family misses about one in ten.
+     * @return The number of records inserted.
+     */
+    long seedFamilies(int families, int months) {
+        Map<String, Long> lastSequence = new LinkedHashMap<>();
+        long recordCount = 0;
+        for (int from = 0; from < families; from += CHUNK_SIZE) {
+            int to = Math.min(families, from + CHUNK_SIZE);
+            List<Object[]> familyRows = new ArrayList<>(to - from);
+            int[] members = new int[to - from];
+            for (int i = from; i < to; i++) {
+                String village = village(i);
+                String prefix = village.substring(0, 3).toUpperCase(Locale.ROOT);
+                long sequence = lastSequence.merge(prefix, 1L, Long::sum);
+                members[i - from] = 1 + Math.min(11, (int) Math.abs(random.nextGaussian() * 2 + 4));
+                familyRows.add(new Object[]{"Head " + i, contactNumber(i), members[i - from], village,
+                        String.format("%s-%05d", prefix, sequence), Timestamp.valueOf(LocalDateTime.of(2022, 12, 1, 9, 0))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO families (family_head_name, contact_number, num_members, village_name, "
+                    + "unique_family_id, created_at) VALUES (?, ?, ?, ?, ?, ?)", familyRows);
+
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM families WHERE contact_number BETWEEN ? AND ? "
+                    + "ORDER BY contact_number", Long.class, contactNumber(from), contactNumber(to - 1));
+            List<Object[]> recordRows = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                BigDecimal entitlement = BigDecimal.valueOf(members[i - from] * ricePerPersonKg);
+                for (int m = 0; m < months; m++) {
+                    if (random.nextInt(10) == 0) {
+                        continue;
+                    }
+                    LocalDate month = FIRST_MONTH.plusMonths(m);
+                    // Most families get their full entitlement; some get a little less
+                    BigDecimal received = random.nextInt(5) == 0 ? entitlement.subtract(BigDecimal.valueOf(random.nextInt(4))).max(BigDecimal.ONE) : entitlement;
+                    recordRows.add(new Object[]{ids.get(i - from), received, month.plusDays(random.nextInt(25)), month, entitlement,
+                            BigDecimal.valueOf(ricePerPersonKg), village(i), Timestamp.valueOf(month.atTime(10, 0))});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO distribution_records (family_id, rice_received_kg, distribution_date, "
+                    + "distribution_month, entitlement_kg, rice_per_person_kg, village_name, duplicate_submissions, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)", recordRows);
+            recordCount += recordRows.size();
+        }
+
+        // New families created during the run continue the id sequences
+        lastSequence.forEach((prefix, last) -> jdbcTemplate.update(
+                "INSERT INTO family_id_sequences (prefix, last_allocated) VALUES (?, ?) "
+                        + "ON DUPLICATE KEY UPDATE last_allocated = GREATEST(last_allocated, ?)", prefix, last, last));
+        return recordCount;
+    }
+
+    /**
+     * Inserts the grievances and their comments.
+     * @param grievances The number of grievances.
+     * @param maxComments The longest thread; most threads are much shorter.
+     * @return The number of comments inserted.
+     */
+    long seedGrievances(int grievances, int maxComments) {
+        long commentCount = 0;
+        String[] statuses = {"New", "In Progress", "Resolved"};
+        for (int from = 0; from < grievances; from += CHUNK_SIZE) {
+            int to = Math.min(grievances, from + CHUNK_SIZE);
+            List<Object[]> grievanceRows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                grievanceRows.add(new Object[]{trackingId(i), GRIEVANCE_SUBJECTS[random.nextInt(GRIEVANCE_SUBJECTS.length)],
+                        "Synthetic grievance " + i + " for load testing.", contactNumber(random.nextInt(Math.max(1, i + 1))),
+                        statuses[random.nextInt(statuses.length)], Timestamp.valueOf(createdAt(i))});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO grievance (tracking_id, subject, content, contact_info, status, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", grievanceRows);
+
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM grievance WHERE tracking_id BETWEEN ? AND ? "
+                    + "ORDER BY tracking_id", Long.class, trackingId(from), trackingId(to - 1));
+            List<Object[]> commentRows = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                // Skewed: many grievances have no comments, a few have long threads
+                int comments = (int) Math.min(maxComments, Math.floor(-Math.log(1 - random.nextDouble()) * 1.5));
+                for (int c = 0; c < comments; c++) {
+                    commentRows.add(new Object[]{ids.get(i - from), "Update " + c + " on grievance " + i,
+                            Timestamp.valueOf(createdAt(i).plusHours(c + 1))});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO grievance_comment (grievance_id, content, created_at) VALUES (?, ?, ?)", commentRows);
+            commentCount += commentRows.size();
+        }
+        return commentCount;
+    }
+
+    static String contactNumber(int i) {
+        return String.format("9%09d", i);
+    }
+
+    static String trackingId(int i) {
+        return String.format("LT-%08d", i);
+    }
+
+    // Village sizes are skewed: the first villages are much larger than the last
+    static String village(int familyIndex) {
+        int villages = VILLAGE_STARTS.length * VILLAGE_ENDS.length;
+        int v = (int) (Math.abs((long) familyIndex * 2654435761L) % (villages * (villages + 1) / 2));
+        int index = 0;
+        while (v >= villages - index) {
+            v -= villages - index;
+            index++;
+        }
+        return VILLAGE_STARTS[index % VILLAGE_STARTS.length] + VILLAGE_ENDS[index / VILLAGE_STARTS.length];
+    }
+
+    private static LocalDateTime createdAt(int i) {
+        return LocalDateTime.of(2023, 1, 1, 8, 0).plusMinutes(i * 7L);
+    }
+}
@@ -0,0 +1,81 @@
+package com.sumitcoder.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.VillageMonthlySummaryDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.MonthlySummaryService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Records written before distribution_month existed get it once, the earliest per family and
+ * month; a legacy duplicate keeps a null month, is skipped by later runs, and is not counted as
+ * a second family when the monthly summary is rebuilt.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DistributionMonthBackfillTest {
+
+    private static final int YEAR = 2017;
+
+    @Autowired
+    private DistributionMonthBackfillInitializer initializer;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void legacyRecordsAreBackfilledOnceAndDuplicatesCountOnce() throws Exception {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName("Legacy Head");
+        row.setContactNumber("7100000001");
+        row.setNumMembers(2);
+        row.setVillageName("Purangaon");
+        row.setRiceReceivedKg(BigDecimal.TEN);
+        row.setDistributionDate(LocalDate.of(YEAR, 6, 3));
+        distributionService.createRecordsInBulk(List.of(row));
+        Family family = familyRepository.findByContactNumber("7100000001").orElseThrow();
+
+        // Turn it into a legacy record and add a second one for the same family and month
+        jdbcTemplate.update("UPDATE distribution_records SET distribution_month = NULL WHERE family_id = ?", family.getId());
+        jdbcTemplate.update("INSERT INTO distribution_records (family_id, rice_received_kg, distribution_date, "
+                + "duplicate_submissions, entitlement_kg, rice_per_person_kg, village_name, created_at) "
+                + "SELECT family_id, rice_received_kg, ?, 0, entitlement_kg, rice_per_person_kg, village_name, created_at "
+                + "FROM distribution_records WHERE family_id = ?", LocalDate.of(YEAR, 6, 20), family.getId());
+
+        initializer.run();
+        initializer.run();
+
+        List<LocalDate> months = jdbcTemplate.queryForList(
+                "SELECT distribution_month FROM distribution_records WHERE family_id = ? ORDER BY id", LocalDate.class, family.getId());
+        assertEquals(LocalDate.of(YEAR, 6, 1), months.get(0));
+        assertNull(months.get(1));
+
+        monthlySummaryService.rebuildYear(YEAR);
+        VillageMonthlySummaryDto summary = monthlySummaryService.getMonthlySummary(YEAR, 6, "Purangaon").get(0);
+        assertEquals(1, summary.getFamiliesServed());
+        assertEquals(0, new BigDecimal("20").compareTo(summary.getKgDistributed()));
+    }
+}
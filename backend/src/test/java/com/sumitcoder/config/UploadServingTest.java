@@ -0,0 +1,85 @@
+package com.sumitcoder.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * /uploads over a real connector, so the sendfile path is exercised: files are immutable and
+ * cacheable, carry a strong ETag, revalidate with a 304 and honour byte ranges.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class UploadServingTest {
+
+    private static final String NAME = "0123456789abcdef".repeat(4) + ".jpg";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Larger than the sendfile threshold
+        content = new byte[512 * 1024];
+        new Random(42).nextBytes(content);
+        Path file = Paths.get(uploadDir).resolve("01/23/" + NAME);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    @Test
+    void fullDownloadIsImmutableWithStrongEtag() throws Exception {
+        HttpResponse<byte[]> response = get(request());
+
+        assertEquals(200, response.statusCode());
+        assertArrayEquals(content, response.body());
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+        assertTrue(cacheControl.contains("immutable") && cacheControl.contains("max-age=31536000"), cacheControl);
+        assertEquals("\"" + NAME + "\"", response.headers().firstValue("ETag").orElse(null));
+
+        HttpResponse<byte[]> revalidated = get(request().header("If-None-Match", "\"" + NAME + "\""));
+        assertEquals(304, revalidated.statusCode());
+        assertEquals(0, revalidated.body().length);
+    }
+
+    @Test
+    void rangeRequestReturnsRequestedBytes() throws Exception {
+        HttpResponse<byte[]> response = get(request().header("Range", "bytes=100000-299999"));
+
+        assertEquals(206, response.statusCode());
+        assertEquals("bytes 100000-299999/" + content.length, response.headers().firstValue("Content-Range").orElse(null));
+        assertArrayEquals(Arrays.copyOfRange(content, 100000, 300000), response.body());
+    }
+
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/uploads/01/23/" + NAME));
+    }
+
+    private HttpResponse<byte[]> get(HttpRequest.Builder request) throws Exception {
+        return client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
@@ -0,0 +1,175 @@
+package com.sumitcoder.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.repository.GrievanceRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Retried public POSTs with the same Idempotency-Key are processed once: a later retry gets the
+ * stored response replayed, simultaneous retries wait for the first request, and a retry with a
+ * different body is refused.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class IdempotencyFilterTest {
+
+    private static final String BOUNDARY = "idempotency-test-boundary";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void retriedRecordSubmissionIsReplayed() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = "{\"familyHeadName\":\"Head\",\"contactNumber\":\"2200000001\",\"numMembers\":3,"
+                + "\"villageName\":\"Retrypur\",\"riceReceivedKg\":15,\"distributionDate\":\"2024-05-02\"}";
+
+        HttpResponse<byte[]> first = postRecord(body, key);
+        HttpResponse<byte[]> retry = postRecord(body, key);
+
+        assertEquals(201, first.statusCode());
+        assertEquals(201, retry.statusCode());
+        assertArrayEquals(first.body(), retry.body());
+        assertTrue(retry.headers().firstValue(IdempotencyFilter.REPLAYED_HEADER).isPresent());
+        assertFalse(first.headers().firstValue(IdempotencyFilter.REPLAYED_HEADER).isPresent());
+
+        // Without the key the submission runs again (and finds the month already recorded)
+        HttpResponse<byte[]> unkeyed = postRecord(body, null);
+        assertEquals(200, unkeyed.statusCode());
+    }
+
+    @Test
+    void keyReusedWithADifferentBodyIsRefused() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = "{\"familyHeadName\":\"Head\",\"contactNumber\":\"2200000003\",\"numMembers\":3,"
+                + "\"villageName\":\"Retrypur\",\"riceReceivedKg\":15,\"distributionDate\":\"2024-05-02\"}";
+
+        assertEquals(201, postRecord(body, key).statusCode());
+        HttpResponse<byte[]> changed = postRecord(body.replace("2200000003", "2200000004"), key);
+
+        assertEquals(422, changed.statusCode());
+        assertFalse(changed.headers().firstValue(IdempotencyFilter.REPLAYED_HEADER).isPresent());
+        // The same body is still replayed
+        assertEquals(201, postRecord(body, key).statusCode());
+    }
+
+    @Test
+    void overlongKeyIsRejected() throws Exception {
+        HttpResponse<byte[]> response = postRecord("{}", "k".repeat(300));
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void simultaneousGrievanceRetriesCreateOneGrievance() throws Exception {
+        String key = UUID.randomUUID().toString();
+        long before = grievanceRepository.count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return postGrievance(key);
+            }));
+        }
+        start.countDown();
+
+        String firstBody = null;
+        for (Future<HttpResponse<String>> future : futures) {
+            HttpResponse<String> response = future.get();
+            assertEquals(201, response.statusCode());
+            if (firstBody == null) {
+                firstBody = response.body();
+            }
+            assertEquals(firstBody, response.body());
+        }
+        pool.shutdown();
+
+        assertEquals(before + 1, grievanceRepository.count());
+    }
+
+    @Test
+    void jdbcStoreClaimsOnceAndReplays() throws Exception {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, Duration.ofHours(1), Duration.ofMinutes(1));
+        String key = "/api/records/public " + UUID.randomUUID();
+
+        assertTrue(store.tryClaim(key, "digest"));
+        assertFalse(store.tryClaim(key, "digest"));
+        assertEquals("digest", store.getRequestDigest(key));
+        assertNull(store.awaitResponse(key, Duration.ofMillis(150)));
+
+        store.complete(key, new StoredResponse(201, "application/json", "{}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(store.tryClaim(key, "digest"));
+        StoredResponse stored = store.awaitResponse(key, Duration.ofSeconds(1));
+        assertEquals(201, stored.status());
+        assertEquals("{}", new String(stored.body(), StandardCharsets.UTF_8));
+
+        // A released key can be claimed again
+        String failed = "/api/records/public " + UUID.randomUUID();
+        assertTrue(store.tryClaim(failed, "digest"));
+        store.release(failed);
+        assertNull(store.awaitResponse(failed, Duration.ofSeconds(1)));
+        assertNull(store.getRequestDigest(failed));
+        assertTrue(store.tryClaim(failed, "other digest"));
+    }
+
+    private HttpResponse<byte[]> postRecord(String json, String key) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/records/public"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (key != null) {
+            request.header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<String> postGrievance(String key) throws Exception {
+        String grievance = "{\"subject\":\"Short ration\",\"content\":\"Received less rice than entitled.\","
+                + "\"contactInfo\":\"2200000002\"}";
+        String multipart = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"grievance\"\r\n"
+                + "Content-Type: application/json\r\n\r\n"
+                + grievance + "\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/grievances/public"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .POST(HttpRequest.BodyPublishers.ofString(multipart))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
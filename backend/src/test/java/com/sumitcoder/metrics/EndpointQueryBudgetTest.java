@@ -0,0 +1,348 @@
+package com.sumitcoder.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.GrievanceCommentDto;
+import com.sumitcoder.dto.GrievanceDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+import com.sumitcoder.service.DistributionService;
+import com.sumitcoder.service.GrievanceService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every endpoint of the record, grievance, family and announcement controllers has a budget of
+ * SQL statements per request, counted by SqlStatementMetricsFilter over a real connector (so
+ * authentication is included). The data behind each request is several rows deep, so an N+1
+ * regression (a lazy association loaded per row, an EAGER collection) pushes the endpoint over
+ * its budget and fails the build. When a change legitimately needs another statement, raise the
+ * budget in the same change and say why. Only statements sent through Hibernate are counted: the
+ * JdbcTemplate batches of the bulk ingest and the export are one statement per batch by design.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+    private static final int FAMILIES = 12;
+
+    private static final String VILLAGE = "Budgetpur";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.initial-admin.username}")
+    private String adminUsername;
+
+    @Value("${app.initial-admin.password}")
+    private String adminPassword;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+
+    private Family family;
+
+    private GrievanceDto grievance;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        // Several families with several months of records each
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < FAMILIES; i++) {
+            for (int month = 1; month <= 3; month++) {
+                DistributionRecordDto row = new DistributionRecordDto();
+                row.setFamilyHeadName("Head " + i);
+                row.setContactNumber(contactNumber(i));
+                row.setNumMembers(4);
+                row.setVillageName(VILLAGE);
+                row.setRiceReceivedKg(BigDecimal.valueOf(20));
+                row.setDistributionDate(LocalDate.of(2023, month, 5));
+                rows.add(row);
+            }
+        }
+        distributionService.createRecordsInBulk(rows);
+        family = familyRepository.findByContactNumber(contactNumber(0)).orElseThrow();
+
+        // Several grievances with several comments each
+        for (int i = 0; i < 6; i++) {
+            GrievanceDto dto = new GrievanceDto();
+            dto.setSubject("Short ration " + i);
+            dto.setContent("Received less rice than entitled.");
+            dto.setContactInfo("98000000" + i);
+            grievance = grievanceService.createGrievance(dto, null);
+            for (int c = 0; c < 4; c++) {
+                GrievanceCommentDto comment = new GrievanceCommentDto();
+                comment.setContent("Update " + c);
+                grievanceService.addCommentToGrievance(grievance.getId(), comment);
+            }
+        }
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(201, send("POST", "/api/announcements/admin", "{\"title\":\"Notice " + i + "\",\"content\":\"Distribution on Friday.\"}",
+                    true).statusCode());
+        }
+    }
+
+    // --- DistributionController ---
+
+    @Test
+    void publicRecordSubmission() throws Exception {
+        assertWithinBudget(6, "POST", "/api/records/public", "/api/records/public",
+                "{\"familyHeadName\":\"Head\",\"contactNumber\":\"5500000999\",\"numMembers\":3,\"villageName\":\"" + VILLAGE
+                        + "\",\"riceReceivedKg\":15,\"distributionDate\":\"2023-06-02\"}", false);
+    }
+
+    @Test
+    void scannedRecordSubmission() throws Exception {
+        assertWithinBudget(4, "POST", "/api/records/public/scan", "/api/records/public/scan",
+                "{\"token\":\"" + family.getUniqueFamilyId() + "\",\"riceReceivedKg\":20,\"distributionDate\":\"2023-07-02\"}", false);
+    }
+
+    @Test
+    void bulkIngest() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            body.append(i > 0 ? "," : "").append("{\"familyHeadName\":\"Bulk ").append(i).append("\",\"contactNumber\":\"55100000")
+                    .append(String.format("%02d", i)).append("\",\"numMembers\":2,\"villageName\":\"").append(VILLAGE)
+                    .append("\",\"riceReceivedKg\":10,\"distributionDate\":\"2023-08-03\"}");
+        }
+        // Which families still need an id, the family lookup, reading the new families back, finding
+        // rows absorbed by concurrent submissions, and the rollup; the batches themselves are JDBC.
+        assertWithinBudget(5, "POST", "/api/records/bulk", "/api/records/bulk", body.append("]").toString(), true);
+    }
+
+    @Test
+    void recordPage() throws Exception {
+        assertWithinBudget(2, "GET", "/api/records?year=2023&size=20", "/api/records", null, true);
+    }
+
+    @Test
+    void recordScroll() throws Exception {
+        assertWithinBudget(1, "GET", "/api/records/scroll?size=20", "/api/records/scroll", null, true);
+    }
+
+    @Test
+    void recordExport() throws Exception {
+        assertWithinBudget(1, "GET", "/api/records/export?year=2023", "/api/records/export", null, true);
+    }
+
+    // --- FamilyController ---
+
+    @Test
+    void familyByContact() throws Exception {
+        assertWithinBudget(1, "GET", "/api/families/public/by-contact/" + contactNumber(1),
+                "/api/families/public/by-contact/{contactNumber}", null, false);
+    }
+
+    @Test
+    void familyByUniqueId() throws Exception {
+        assertWithinBudget(1, "GET", "/api/families/admin/by-id/" + family.getUniqueFamilyId(),
+                "/api/families/admin/by-id/{uniqueFamilyId}", null, true);
+        // Ids are enumerable, so the family's name and contact number stay behind admin login.
+        assertEquals(403, send("GET", "/api/families/admin/by-id/" + family.getUniqueFamilyId(), null, false).statusCode());
+    }
+
+    @Test
+    void familyHistory() throws Exception {
+        assertWithinBudget(1, "GET", "/api/families/admin/" + family.getId() + "/history",
+                "/api/families/admin/{familyId}/history", null, true);
+    }
+
+    @Test
+    void qrCodeBatch() throws Exception {
+        assertWithinBudget(1, "GET", "/api/families/admin/qr-codes?size=100&village=" + VILLAGE,
+                "/api/families/admin/qr-codes", null, true);
+        // Answered by GlobalExceptionHandler, not forwarded to /error (which Spring Security denies)
+        HttpResponse<String> badSize = send("GET", "/api/families/admin/qr-codes?size=5", null, true);
+        assertEquals(400, badSize.statusCode());
+        assertTrue(badSize.body().contains("between 100 and 1000"), badSize.body());
+    }
+
+    // --- GrievanceController ---
+
+    @Test
+    void grievanceSubmission() throws Exception {
+        String boundary = "budget-boundary";
+        String body = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"grievance\"\r\nContent-Type: application/json\r\n\r\n"
+                + "{\"subject\":\"Late\",\"content\":\"Shop closed.\",\"contactInfo\":\"9800000100\"}\r\n--" + boundary + "--\r\n";
+        long statements = measure("POST", "/api/grievances/public", "/api/grievances/public", body,
+                "multipart/form-data; boundary=" + boundary, false);
+        assertBudget(1, "POST /api/grievances/public", statements);
+    }
+
+    @Test
+    void grievanceStatus() throws Exception {
+        assertWithinBudget(2, "GET", "/api/grievances/public/status/" + grievance.getTrackingId(),
+                "/api/grievances/public/status/{trackingId}", null, false);
+    }
+
+    @Test
+    void grievanceCommentsByTrackingId() throws Exception {
+        assertWithinBudget(2, "GET", "/api/grievances/public/status/" + grievance.getTrackingId() + "/comments",
+                "/api/grievances/public/status/{trackingId}/comments", null, false);
+    }
+
+    @Test
+    void grievancePage() throws Exception {
+        assertWithinBudget(3, "GET", "/api/grievances/admin?size=6", "/api/grievances/admin", null, true);
+    }
+
+    @Test
+    void grievanceScroll() throws Exception {
+        assertWithinBudget(2, "GET", "/api/grievances/admin/scroll?size=6", "/api/grievances/admin/scroll", null, true);
+    }
+
+    @Test
+    void grievanceStatusUpdate() throws Exception {
+        assertWithinBudget(3, "PUT", "/api/grievances/admin/" + grievance.getId() + "/status",
+                "/api/grievances/admin/{id}/status", "{\"status\":\"IN_PROGRESS\"}", true);
+    }
+
+    @Test
+    void grievanceCommentPage() throws Exception {
+        assertWithinBudget(2, "GET", "/api/grievances/admin/" + grievance.getId() + "/comments",
+                "/api/grievances/admin/{grievanceId}/comments", null, true);
+    }
+
+    @Test
+    void grievanceComment() throws Exception {
+        assertWithinBudget(2, "POST", "/api/grievances/admin/" + grievance.getId() + "/comments",
+                "/api/grievances/admin/{grievanceId}/comments", "{\"content\":\"Resolved at the shop.\"}", true);
+    }
+
+    // --- AnnouncementController ---
+
+    @Test
+    void announcementPage() throws Exception {
+        assertWithinBudget(1, "GET", "/api/announcements/public", "/api/announcements/public", null, false);
+    }
+
+    @Test
+    void announcementScroll() throws Exception {
+        assertWithinBudget(1, "GET", "/api/announcements/public/scroll", "/api/announcements/public/scroll", null, false);
+    }
+
+    @Test
+    void announcementLifecycle() throws Exception {
+        HttpResponse<String> created = send("POST", "/api/announcements/admin",
+                "{\"title\":\"Holiday\",\"content\":\"Closed on Monday.\"}", true);
+        long id = objectMapper.readTree(created.body()).get("id").asLong();
+
+        assertWithinBudget(2, "PUT", "/api/announcements/admin/" + id, "/api/announcements/admin/{id}",
+                "{\"title\":\"Holiday\",\"content\":\"Closed on Tuesday.\"}", true);
+        assertWithinBudget(3, "DELETE", "/api/announcements/admin/" + id, "/api/announcements/admin/{id}", null, true);
+        assertWithinBudget(1, "POST", "/api/announcements/admin", "/api/announcements/admin",
+                "{\"title\":\"Stock\",\"content\":\"New stock arrived.\"}", true);
+    }
+
+    // --- Helper Methods ---
+
+    private void assertWithinBudget(int budget, String method, String path, String uriTemplate, String json, boolean admin)
+            throws Exception {
+        assertBudget(budget, method + " " + uriTemplate,
+                measure(method, path, uriTemplate, json, json != null ? "application/json" : null, admin));
+    }
+
+    private static void assertBudget(int budget, String endpoint, long statements) {
+        assertTrue(statements <= budget, endpoint + " sent " + statements + " SQL statements, over its budget of " + budget);
+    }
+
+    // Sends the request and returns the statements it cost, as recorded by SqlStatementMetricsFilter
+    private long measure(String method, String path, String uriTemplate, String body, String contentType, boolean admin)
+            throws Exception {
+        long countBefore = 0;
+        double totalBefore = 0;
+        DistributionSummary summary = summary(method, uriTemplate);
+        if (summary != null) {
+            countBefore = summary.count();
+            totalBefore = summary.totalAmount();
+        }
+
+        HttpResponse<String> response = send(method, path, body, contentType, admin);
+        assertTrue(response.statusCode() < 300, method + " " + path + " returned " + response.statusCode() + ": " + response.body());
+
+        // The filter records once the response is complete, which the client may see first
+        for (int i = 0; i < 100; i++) {
+            summary = summary(method, uriTemplate);
+            if (summary != null && summary.count() > countBefore) {
+                return Math.round(summary.totalAmount() - totalBefore);
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No statement count was recorded for " + method + " " + uriTemplate);
+    }
+
+    private DistributionSummary summary(String method, String uriTemplate) {
+        return meterRegistry.find("http.server.requests.sql.statements").tag("method", method).tag("uri", uriTemplate).summary();
+    }
+
+    private HttpResponse<String> send(String method, String path, String json, boolean admin) throws Exception {
+        return send(method, path, json, json != null ? "application/json" : null, admin);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String contentType, boolean admin) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        if (admin) {
+            request.header("Authorization", "Bearer " + adminToken());
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private String adminToken() throws Exception {
+        if (token == null) {
+            HttpResponse<String> login = send("POST", "/api/auth/login",
+                    "{\"username\":\"" + adminUsername + "\",\"password\":\"" + adminPassword + "\"}", false);
+            JsonNode json = objectMapper.readTree(login.body());
+            token = json.get("token").asText();
+        }
+        return token;
+    }
+
+    private static String contactNumber(int i) {
+        return String.format("55%08d", i);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sumitcoder.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * The actuator is served on the management port only, bound to loopback by default, where a scraper
+ * needs no admin token.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ManagementPortTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void prometheusIsScrapedWithoutATokenOnTheManagementPort() throws Exception {
+        assertNotEquals(port, managementPort);
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("hikaricp_connections"), "metric missing from scrape");
+
+        // Only health, metrics and prometheus are exposed
+        String links = get(managementPort, "/actuator").body();
+        assertTrue(links.contains("/actuator/prometheus") && links.contains("/actuator/health"), links);
+        assertFalse(links.contains("/actuator/caches"), links);
+    }
+
+    @Test
+    void managementPortOnlyListensOnLoopbackByDefault() throws Exception {
+        assertTrue(InetAddress.getByName(environment.getProperty("management.server.address")).isLoopbackAddress());
+    }
+
+    @Test
+    void actuatorIsNotReachableOnThePublicPort() throws Exception {
+        assertEquals(403, get(port, "/actuator/prometheus").statusCode());
+        assertEquals(403, get(port, "/actuator/health").statusCode());
+    }
+
+    // --- Helper Methods ---
+
+    private HttpResponse<String> get(int targetPort, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + targetPort + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.sumitcoder.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * A request is visible in the controller, service, repository and per-request SQL statement metrics.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RequestMetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void recordSubmissionIsTimedAndItsStatementsCounted() throws Exception {
+        String body = "{\"familyHeadName\":\"Head\",\"contactNumber\":\"4400000001\",\"numMembers\":3,"
+                + "\"villageName\":\"Metricpur\",\"riceReceivedKg\":15,\"distributionDate\":\"2024-05-02\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/records/public"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        assertEquals(201, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        // The filter records after the response is committed, so the client may see it first
+        DistributionSummary statements = null;
+        for (int i = 0; i < 50 && statements == null; i++) {
+            statements = meterRegistry.find("http.server.requests.sql.statements")
+                    .tag("method", "POST").tag("uri", "/api/records/public").summary();
+            if (statements == null) {
+                Thread.sleep(20);
+            }
+        }
+        assertTrue(statements != null && statements.count() == 1);
+        // Family upsert and read-back, record insert, summary rollup at the least
+        assertTrue(statements.totalAmount() >= 4, "statements: " + statements.totalAmount());
+
+        assertEquals(1, meterRegistry.get("app.controller.invocations")
+                .tag("class", "DistributionController").tag("method", "createRecord").timer().count());
+        assertTrue(meterRegistry.get("app.service.invocations")
+                .tag("class", "DistributionService").tag("method", "createPublicRecord").timer().count() >= 1);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "FamilyRepository").tag("method", "upsertFamily").timer().count() >= 1);
+    }
+}
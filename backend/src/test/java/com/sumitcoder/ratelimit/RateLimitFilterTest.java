@@ -0,0 +1,128 @@
+package com.sumitcoder.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public endpoints are rate limited per client and shed beyond the concurrency limit, with 429 and
+ * 503 responses counted in http.server.requests.rejected.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.rate-limit.enabled=true",
+        "app.rate-limit.rules[0].name=announcements",
+        "app.rate-limit.rules[0].path=/api/announcements/public",
+        "app.rate-limit.rules[0].capacity=3",
+        "app.rate-limit.rules[0].refill-per-minute=1"
+})
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void clientOverItsLimitGetsTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, get("/api/announcements/public").statusCode());
+        }
+
+        HttpResponse<String> limited = get("/api/announcements/public");
+        assertEquals(429, limited.statusCode());
+        assertTrue(Long.parseLong(limited.headers().firstValue("Retry-After").orElseThrow()) > 0);
+        assertTrue(limited.body().contains("Too many requests"));
+        assertEquals(1.0, meterRegistry.get("http.server.requests.rejected")
+                .tag("reason", "rate-limit").tag("endpoint", "announcements").counter().count());
+
+        // Paths outside the rules are not limited
+        assertEquals(200, get("/api/announcements/public/scroll").statusCode());
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, 1.0 / second, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(second, bucket.tryConsume(0));
+        assertEquals(second / 2, bucket.tryConsume(second / 2));
+        assertEquals(0, bucket.tryConsume(second));
+        // Idle time never fills the bucket beyond its capacity
+        assertEquals(0, bucket.tryConsume(100 * second));
+        assertEquals(0, bucket.tryConsume(100 * second));
+        assertTrue(bucket.tryConsume(100 * second) > 0);
+    }
+
+    @Test
+    void requestsBeyondConcurrencyLimitAreShed() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoadSheddingInterceptor interceptor = new LoadSheddingInterceptor(true, 1, 4, 10, Duration.ofMillis(10), registry);
+
+        // A slot is held from preHandle to afterCompletion, i.e. while the controller runs
+        MockHttpServletRequest slow = publicRequest();
+        assertTrue(interceptor.preHandle(slow, new MockHttpServletResponse(), null));
+        assertEquals(1.0, registry.get("http.server.requests.public.in-flight").gauge().value());
+
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(publicRequest(), shed, null));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+
+        // Admin requests are never shed
+        MockHttpServletResponse admin = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/families"), admin, null));
+        assertEquals(200, admin.getStatus());
+
+        interceptor.afterCompletion(slow, new MockHttpServletResponse(), null, null);
+        assertEquals(0.0, registry.get("http.server.requests.public.in-flight").gauge().value());
+        MockHttpServletRequest afterwards = publicRequest();
+        assertTrue(interceptor.preHandle(afterwards, new MockHttpServletResponse(), null));
+        interceptor.afterCompletion(afterwards, new MockHttpServletResponse(), null, null);
+        assertEquals(1.0, registry.get("http.server.requests.rejected").tag("reason", "load-shed").counter().count());
+    }
+
+    @Test
+    void concurrencyLimitStaysBelowTheConnectionPool() {
+        assertEquals(6, LoadSheddingInterceptor.maxConcurrentFor(null, 4, 10));
+        assertEquals(1, LoadSheddingInterceptor.maxConcurrentFor(null, 4, 5));
+        assertEquals(3, LoadSheddingInterceptor.maxConcurrentFor(3, 4, 5));
+        assertThrows(IllegalStateException.class, () -> LoadSheddingInterceptor.maxConcurrentFor(6, 4, 6));
+        assertThrows(IllegalStateException.class, () -> LoadSheddingInterceptor.maxConcurrentFor(null, 4, 1));
+    }
+
+    // --- Helper Methods ---
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static MockHttpServletRequest publicRequest() {
+        return new MockHttpServletRequest("GET", "/api/announcements/public");
+    }
+}
@@ -0,0 +1,91 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sumitcoder.dto.AnnouncementDto;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * The first pages of the public announcement feed are served from the latest-announcements cache,
+ * writes invalidate it, and unchanged pages revalidate with a 304.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AnnouncementFeedCacheTest {
+
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+
+    @Autowired
+    private AnnouncementService announcementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void firstPageIsServedFromCacheUntilAnAnnouncementChanges() {
+        AnnouncementDto created = announcementService.createAnnouncement(announcement("Distribution on Monday"));
+
+        announcementService.getPublicAnnouncements(FIRST_PAGE);
+        statistics.clear();
+        Page<AnnouncementDto> cached = announcementService.getPublicAnnouncements(FIRST_PAGE);
+        assertEquals(0, statistics.getPrepareStatementCount(), "cached page should not query");
+        assertEquals(created.getId(), cached.getContent().get(0).getId());
+        assertEquals(created.getId(), announcementService.getLatestAnnouncement().orElseThrow().getId());
+        assertEquals(0, statistics.getPrepareStatementCount(), "chatbot lookup should share the cache");
+
+        announcementService.updateAnnouncement(created.getId(), announcement("Distribution moved to Tuesday"));
+        assertEquals("Distribution moved to Tuesday",
+                announcementService.getPublicAnnouncements(FIRST_PAGE).getContent().get(0).getTitle());
+    }
+
+    @Test
+    void unchangedFeedRevalidatesWithNotModified() throws Exception {
+        announcementService.createAnnouncement(announcement("Ration cards renewal"));
+
+        String eTag = mockMvc.perform(get("/api/announcements/public"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/announcements/public").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        announcementService.createAnnouncement(announcement("Extra quota this month"));
+        mockMvc.perform(get("/api/announcements/public").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    private AnnouncementDto announcement(String title) {
+        AnnouncementDto dto = new AnnouncementDto();
+        dto.setTitle(title);
+        dto.setContent(title + " at the village centre.");
+        return dto;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.dto.BulkIngestResponseDto;
+import com.sumitcoder.dto.BulkRecordResultDto;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The bulk upload reports one result per submitted row, by index: invalid rows are rejected with
+ * a message, repeated family/month rows are reported as duplicates, and the valid rows are stored.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkIngestResultTest {
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Test
+    void everyRowGetsItsOwnResult() {
+        DistributionRecordDto missingContact = row(null, "Head", LocalDate.of(2024, 4, 2));
+        List<DistributionRecordDto> rows = new ArrayList<>(Arrays.asList(
+                row("1100000001", "First Head", LocalDate.of(2024, 4, 2)),
+                missingContact,
+                null,
+                row("1100000001", "First Head", LocalDate.of(2024, 4, 20)),
+                row("1100000001", "Renamed Head", LocalDate.of(2024, 5, 3)),
+                row("1100000002", "Second Head", LocalDate.of(2024, 4, 5))));
+
+        BulkIngestResponseDto response = distributionService.createRecordsInBulk(rows);
+
+        assertEquals(6, response.getReceived());
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(2, response.getRejected());
+
+        List<BulkRecordResultDto> results = response.getResults();
+        assertEquals(6, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        assertEquals(BulkRecordResultDto.STATUS_CREATED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getFamilyId());
+        assertNull(results.get(0).getMessage());
+
+        assertEquals(BulkRecordResultDto.STATUS_REJECTED, results.get(1).getStatus());
+        assertTrue(results.get(1).getMessage().contains("contactNumber"), results.get(1).getMessage());
+        assertNull(results.get(1).getFamilyId());
+        assertEquals(BulkRecordResultDto.STATUS_REJECTED, results.get(2).getStatus());
+        assertEquals("Row is empty", results.get(2).getMessage());
+
+        // Same family and month as row 0, earlier in this upload
+        assertEquals(BulkRecordResultDto.STATUS_DUPLICATE, results.get(3).getStatus());
+        assertEquals(results.get(0).getFamilyId(), results.get(3).getFamilyId());
+        assertTrue(results.get(3).getMessage().contains("2024-04"), results.get(3).getMessage());
+
+        assertEquals(BulkRecordResultDto.STATUS_CREATED, results.get(4).getStatus());
+        assertEquals(results.get(0).getFamilyId(), results.get(4).getFamilyId());
+        assertEquals(BulkRecordResultDto.STATUS_CREATED, results.get(5).getStatus());
+
+        // The last row of a contact number decides the family details
+        Family family = familyRepository.findByContactNumber("1100000001").orElseThrow();
+        assertEquals("Renamed Head", family.getFamilyHeadName());
+        assertNotNull(family.getUniqueFamilyId());
+        assertEquals(2, distributionService.getRecordsForFamily(family.getId()).size());
+
+        // Uploading the same rows again stores nothing new
+        BulkIngestResponseDto again = distributionService.createRecordsInBulk(rows);
+        assertEquals(0, again.getCreated());
+        assertEquals(4, again.getDuplicates());
+        assertEquals(2, again.getRejected());
+    }
+
+    private DistributionRecordDto row(String contactNumber, String headName, LocalDate date) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName(headName);
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(4);
+        row.setVillageName("Resultpur");
+        row.setRiceReceivedKg(BigDecimal.valueOf(20));
+        row.setDistributionDate(date);
+        return row;
+    }
+}
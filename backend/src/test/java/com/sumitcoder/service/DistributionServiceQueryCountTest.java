@@ -0,0 +1,136 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.ScanRecordDto;
+import com.sumitcoder.exception.BadRequestException;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guards against N+1 loading of Family when distribution records are converted to DTOs:
+ * a page must always cost the same number of statements, however many families it shows.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DistributionServiceQueryCountTest {
+
+    private static final String CONTACT_PREFIX = "55";
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Twenty records for twenty different families, plus a few later months for the first family.
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(row(i, LocalDate.of(2024, 6, 1 + i)));
+        }
+        for (int i = 0; i < 3; i++) {
+            rows.add(row(0, LocalDate.of(2024, 7 + i, 1)));
+        }
+        distributionService.createRecordsInBulk(rows);
+    }
+
+    @Test
+    void recordPageLoadsFamiliesInTheSameQuery() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id").descending());
+
+        statistics.clear();
+        Page<DistributionRecordDto> page = distributionService.getAllRecords(null, null, pageable);
+
+        assertEquals(10, page.getContent().size());
+        page.getContent().forEach(dto -> assertNotNull(dto.getFamily().getContactNumber()));
+        // One SELECT for the page (with the families joined) and one COUNT.
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void filteredRecordPageLoadsFamiliesInTheSameQuery() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id").descending());
+
+        statistics.clear();
+        Page<DistributionRecordDto> page = distributionService.getAllRecords(2024, 6, pageable);
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void familyHistoryIsASingleQuery() {
+        Long familyId = distributionService.getAllRecords(2024, 7, PageRequest.of(0, 1))
+                .getContent().get(0).getFamily().getId();
+
+        statistics.clear();
+        List<DistributionRecordDto> history = distributionService.getRecordsForFamily(familyId);
+
+        assertTrue(history.size() >= 4);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void scannedRecordIsOneLookupAndOneUpsertWithoutTouchingTheFamily() {
+        ScanRecordDto scan = new ScanRecordDto();
+        scan.setToken(String.format("%s%08d", CONTACT_PREFIX, 5));
+        scan.setRiceReceivedKg(BigDecimal.valueOf(20));
+        scan.setDistributionDate(LocalDate.of(2024, 8, 1));
+
+        statistics.clear();
+        DistributionRecordDto created = distributionService.createScannedRecord(scan);
+
+        assertEquals("Head 5", created.getFamily().getFamilyHeadName());
+        // One indexed family lookup, the once-per-month record upsert, reading the record back,
+        // and the monthly rollup upsert.
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void scrollRejectsBadArgumentsBeforeQuerying() {
+        statistics.clear();
+
+        assertThrows(BadRequestException.class, () -> distributionService.scrollRecords(null, null, null, 0));
+        assertThrows(BadRequestException.class, () -> distributionService.scrollRecords(null, null, null, -5));
+        assertThrows(BadRequestException.class, () -> distributionService.scrollRecords(null, 6, null, 10));
+        assertThrows(BadRequestException.class, () -> distributionService.scrollRecords(2024, 13, null, 10));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private DistributionRecordDto row(int familyIndex, LocalDate date) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName("Head " + familyIndex);
+        row.setContactNumber(String.format("%s%08d", CONTACT_PREFIX, familyIndex));
+        row.setNumMembers(4);
+        row.setVillageName("Rampur");
+        row.setRiceReceivedKg(BigDecimal.valueOf(20));
+        row.setDistributionDate(date);
+        return row;
+    }
+}
@@ -0,0 +1,150 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.dto.BulkIngestResponseDto;
+import com.sumitcoder.dto.BulkRecordResultDto;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.VillageMonthlySummaryDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A family is recorded at most once per month: hundreds of simultaneous submissions for the same
+ * new family all succeed, create exactly one family and one record, and are counted once, also
+ * when a bulk upload for the same families and month runs at the same time.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DuplicateDistributionConcurrencyTest {
+
+    private static final int SUBMISSIONS = 300;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Test
+    void simultaneousSubmissionsForOneFamilyRecordItOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DistributionRecordDto>> futures = new ArrayList<>();
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            LocalDate date = LocalDate.of(2024, 10, 1 + i % 28);
+            futures.add(pool.submit(() -> {
+                start.await();
+                return distributionService.createPublicRecord(row("3300000001", "Dupgaon", date));
+            }));
+        }
+        start.countDown();
+
+        List<DistributionRecordDto> results = new ArrayList<>();
+        for (Future<DistributionRecordDto> future : futures) {
+            results.add(future.get());
+        }
+        pool.shutdown();
+
+        assertEquals(1, results.stream().filter(r -> r.getAlreadyRecorded() == null).count());
+        assertEquals(1, results.stream().map(DistributionRecordDto::getId).distinct().count());
+        Family family = familyRepository.findByContactNumber("3300000001").orElseThrow();
+        assertEquals(1, distributionService.getRecordsForFamily(family.getId()).size());
+        assertTrue(results.stream().allMatch(r -> family.getUniqueFamilyId().equals(r.getUniqueFamilyId())));
+
+        List<VillageMonthlySummaryDto> summary = monthlySummaryService.getMonthlySummary(2024, 10, "Dupgaon");
+        assertEquals(1, summary.get(0).getFamiliesServed());
+
+        // The next month is a new cycle
+        DistributionRecordDto november = distributionService.createPublicRecord(row("3300000001", "Dupgaon", LocalDate.of(2024, 11, 2)));
+        assertEquals(null, november.getAlreadyRecorded());
+    }
+
+    @Test
+    void bulkUploadReportsRepeatedMonthsAsDuplicates() {
+        distributionService.createPublicRecord(row("3300000002", "Bulkpur", LocalDate.of(2024, 9, 5)));
+
+        BulkIngestResponseDto response = distributionService.createRecordsInBulk(List.of(
+                row("3300000002", "Bulkpur", LocalDate.of(2024, 9, 20)),
+                row("3300000003", "Bulkpur", LocalDate.of(2024, 9, 1)),
+                row("3300000003", "Bulkpur", LocalDate.of(2024, 9, 30)),
+                row("3300000003", "Bulkpur", LocalDate.of(2024, 10, 1))));
+
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getDuplicates());
+        assertEquals(0, response.getRejected());
+        assertEquals(BulkRecordResultDto.STATUS_DUPLICATE, response.getResults().get(0).getStatus());
+        assertEquals(BulkRecordResultDto.STATUS_DUPLICATE, response.getResults().get(2).getStatus());
+    }
+
+    @Test
+    void bulkUploadRacingPublicSubmissionsCountsEachFamilyOnce() throws Exception {
+        int families = 200;
+        List<DistributionRecordDto> upload = new ArrayList<>();
+        for (int i = 0; i < families; i++) {
+            upload.add(row(String.format("34%08d", i), "Racepur", LocalDate.of(2024, 12, 3)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<BulkIngestResponseDto> bulk = pool.submit(() -> {
+            start.await();
+            return distributionService.createRecordsInBulk(upload);
+        });
+        List<Future<DistributionRecordDto>> submissions = new ArrayList<>();
+        for (int i = families - 1; i >= 0; i--) {
+            String contactNumber = String.format("34%08d", i);
+            submissions.add(pool.submit(() -> {
+                start.await();
+                return distributionService.createPublicRecord(row(contactNumber, "Racepur", LocalDate.of(2024, 12, 9)));
+            }));
+        }
+        start.countDown();
+
+        BulkIngestResponseDto response = bulk.get();
+        long createdByCounters = 0;
+        for (Future<DistributionRecordDto> submission : submissions) {
+            if (submission.get().getAlreadyRecorded() == null) {
+                createdByCounters++;
+            }
+        }
+        pool.shutdown();
+
+        // Every family is recorded once, by the upload or by a counter, and the rollup agrees.
+        assertEquals(0, response.getRejected());
+        assertEquals(families, response.getCreated() + response.getDuplicates());
+        assertEquals(families, response.getCreated() + createdByCounters);
+        VillageMonthlySummaryDto summary = monthlySummaryService.getMonthlySummary(2024, 12, "Racepur").get(0);
+        assertEquals(families, summary.getFamiliesServed());
+        assertEquals(0, BigDecimal.valueOf(15L * families).compareTo(summary.getKgDistributed()));
+    }
+
+    private DistributionRecordDto row(String contactNumber, String village, LocalDate date) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName("Head");
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(3);
+        row.setVillageName(village);
+        row.setRiceReceivedKg(BigDecimal.valueOf(15));
+        row.setDistributionDate(date);
+        return row;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.entity.Family;
+import com.sumitcoder.repository.FamilyRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * uniqueFamilyIds are unique under concurrent allocation, assigned when families are created,
+ * backfilled for families that predate them, and usable to look a family up.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FamilyIdGeneratorTest {
+
+    @Autowired
+    private FamilyIdGenerator familyIdGenerator;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private FamilyService familyService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentAllocationNeverRepeatsAnId() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<List<Family>>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                List<Family> families = new ArrayList<>();
+                for (int i = 0; i < 250; i++) {
+                    Family family = new Family();
+                    family.setVillageName("Sonpur");
+                    familyIdGenerator.assignMissingIds(List.of(family));
+                    families.add(family);
+                }
+                return families;
+            }));
+        }
+        Set<String> ids = new HashSet<>();
+        for (Future<List<Family>> future : futures) {
+            future.get().forEach(family -> ids.add(family.getUniqueFamilyId()));
+        }
+        pool.shutdown();
+
+        assertEquals(2000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id.matches("SON-[0-9A-Z]{5}")), ids.iterator().next());
+    }
+
+    @Test
+    void prefixComesFromTheVillageName() {
+        assertEquals("RAM", FamilyIdGenerator.prefixFor("Rampur"));
+        assertEquals("ELU", FamilyIdGenerator.prefixFor("Élu"));
+        assertEquals("AXX", FamilyIdGenerator.prefixFor("A"));
+        assertEquals("FAM", FamilyIdGenerator.prefixFor("   "));
+        assertEquals("FAM", FamilyIdGenerator.prefixFor(null));
+    }
+
+    @Test
+    void createdFamiliesGetAnIdAndOlderOnesAreBackfilled() {
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(row(String.format("44%08d", i)));
+        }
+        distributionService.createRecordsInBulk(rows);
+        Family bulkFamily = familyRepository.findByContactNumber("4400000000").orElseThrow();
+        assertTrue(bulkFamily.getUniqueFamilyId().startsWith("KAL-"), bulkFamily.getUniqueFamilyId());
+
+        // A family written before ids were assigned
+        jdbcTemplate.update("INSERT INTO families (family_head_name, contact_number, num_members, village_name, created_at) "
+                + "VALUES ('Old Head', '4499999999', 2, 'Kalyanpur', CURRENT_TIMESTAMP)");
+        Family old = familyRepository.findByContactNumber("4499999999").orElseThrow();
+        assertEquals(null, old.getUniqueFamilyId());
+
+        assertEquals(1, familyService.backfillUniqueFamilyIds(old.getId(), old.getId()));
+        String assigned = familyRepository.findById(old.getId()).orElseThrow().getUniqueFamilyId();
+        assertNotNull(assigned);
+        assertEquals("4499999999", familyService.getFamilyByUniqueFamilyId(assigned).orElseThrow().getContactNumber());
+    }
+
+    private DistributionRecordDto row(String contactNumber) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName("Head");
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(3);
+        row.setVillageName("Kalyanpur");
+        row.setRiceReceivedKg(BigDecimal.valueOf(15));
+        row.setDistributionDate(LocalDate.of(2024, 9, 2));
+        return row;
+    }
+}
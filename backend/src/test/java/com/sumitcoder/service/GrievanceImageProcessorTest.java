@@ -0,0 +1,151 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sumitcoder.dto.GrievanceDto;
+import com.sumitcoder.entity.Grievance;
+import com.sumitcoder.repository.GrievanceRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A grievance is saved with its image PENDING, and the background pipeline then either stores the
+ * image with a thumbnail (READY) or discards a file that is not really an image (REJECTED).
+ * Stored images are content-addressed, so the same photo is kept once however often it is attached.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GrievanceImageProcessorTest {
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
+
+    @Test
+    void uploadedPhotoIsStoredWithThumbnail() throws Exception {
+        MockMultipartFile photo = new MockMultipartFile("image", "photo.png", "image/png", png(1600, 1200));
+
+        GrievanceDto created = grievanceService.createGrievance(grievance(), photo);
+        assertEquals(Grievance.IMAGE_PENDING, created.getImageStatus());
+        assertNull(created.getImageUrl());
+
+        Grievance processed = awaitProcessing(created.getId());
+        assertEquals(Grievance.IMAGE_READY, processed.getImageStatus());
+        assertEquals(64, processed.getImageContentHash().length());
+        assertTrue(Files.exists(fileStorageService.resolveStoredFile(processed.getImageFilename())));
+
+        BufferedImage thumbnail = ImageIO.read(fileStorageService.resolveStoredFile(processed.getThumbnailFilename()).toFile());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(240, thumbnail.getHeight());
+    }
+
+    @Test
+    void resubmittedPhotoIsStoredOnce() throws Exception {
+        byte[] bytes = png(640, 480);
+        Grievance first = awaitProcessing(grievanceService.createGrievance(grievance(),
+                new MockMultipartFile("image", "a.png", "image/png", bytes)).getId());
+        Grievance second = awaitProcessing(grievanceService.createGrievance(grievance(),
+                new MockMultipartFile("image", "b.png", "image/png", bytes)).getId());
+
+        assertEquals(Grievance.IMAGE_READY, second.getImageStatus());
+        assertEquals(first.getImageFilename(), second.getImageFilename());
+        assertEquals(first.getThumbnailFilename(), second.getThumbnailFilename());
+        assertTrue(first.getImageFilename().startsWith(first.getImageContentHash().substring(0, 2) + "/"));
+    }
+
+    @Test
+    void garbageCollectionRemovesOnlyOldUnreferencedFiles() throws Exception {
+        Grievance kept = awaitProcessing(grievanceService.createGrievance(grievance(),
+                new MockMultipartFile("image", "kept.png", "image/png", png(100, 100))).getId());
+        Path keptFile = fileStorageService.resolveStoredFile(kept.getImageFilename());
+        Files.setLastModifiedTime(keptFile, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        Path orphan = fileStorageService.resolveStoredFile(fileStorageService.contentAddressedName("ab".repeat(32), ".png"));
+        Files.createDirectories(orphan.getParent());
+        Files.write(orphan, new byte[] { 1, 2, 3 });
+        Path recentOrphan = orphan.resolveSibling("ab".repeat(32) + ".gif");
+        Files.write(recentOrphan, new byte[] { 4, 5, 6 });
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        uploadGarbageCollector.collectGarbage();
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(recentOrphan), "files inside the grace period are kept");
+        assertTrue(Files.exists(keptFile), "referenced files are kept");
+        Files.delete(recentOrphan);
+    }
+
+    @Test
+    void fileThatIsNotAnImageIsRejected() throws Exception {
+        MockMultipartFile fake = new MockMultipartFile("image", "photo.jpg", "image/jpeg",
+                "definitely not a photo".getBytes(StandardCharsets.UTF_8));
+
+        // The processor may clear the staged name before it can be read back, so compare the staging directory
+        Set<Path> stagedBefore = stagedFiles();
+        GrievanceDto created = grievanceService.createGrievance(grievance(), fake);
+
+        Grievance processed = awaitProcessing(created.getId());
+        assertEquals(Grievance.IMAGE_REJECTED, processed.getImageStatus());
+        assertNull(processed.getImageFilename());
+        assertEquals(stagedBefore, stagedFiles(), "the rejected upload was left in staging");
+    }
+
+    private Set<Path> stagedFiles() throws IOException {
+        try (Stream<Path> staged = Files.list(fileStorageService.getStagedFile(""))) {
+            return staged.collect(Collectors.toSet());
+        }
+    }
+
+    private Grievance awaitProcessing(Long id) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Grievance grievance = grievanceRepository.findById(id).orElseThrow();
+            if (!Grievance.IMAGE_PENDING.equals(grievance.getImageStatus())) {
+                return grievance;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Image for grievance " + id + " was not processed in time");
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private GrievanceDto grievance() {
+        GrievanceDto dto = new GrievanceDto();
+        dto.setSubject("Damaged sacks");
+        dto.setContent("The rice sacks were torn, photo attached.");
+        return dto;
+    }
+}
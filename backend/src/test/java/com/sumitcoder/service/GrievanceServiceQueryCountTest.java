@@ -0,0 +1,101 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sumitcoder.dto.GrievanceCommentDto;
+import com.sumitcoder.dto.GrievanceDto;
+import com.sumitcoder.exception.BadRequestException;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Grievance lists carry comment counts, not comment threads: a page costs a fixed number of
+ * statements however many comments its grievances have, and threads are paged separately.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GrievanceServiceQueryCountTest {
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private GrievanceDto discussed;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < 5; i++) {
+            GrievanceDto grievance = grievanceService.createGrievance(grievance("Short ration " + i), null);
+            for (int c = 0; c < i; c++) {
+                grievanceService.addCommentToGrievance(grievance.getId(), comment("Update " + c));
+            }
+            discussed = grievance;
+        }
+    }
+
+    @Test
+    void grievancePageCountsCommentsInOneGroupedQuery() {
+        PageRequest pageable = PageRequest.of(0, 5, Sort.by("createdAt").descending());
+
+        statistics.clear();
+        Page<GrievanceDto> page = grievanceService.getAllGrievances(pageable);
+
+        assertEquals(5, page.getContent().size());
+        page.getContent().forEach(dto -> assertNotNull(dto.getCommentCount()));
+        // One SELECT for the page, one COUNT, and one grouped comment count.
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void statusCarriesCountAndCommentsArePaged() {
+        GrievanceDto status = grievanceService.getGrievanceByTrackingId(discussed.getTrackingId());
+        assertEquals(4L, status.getCommentCount());
+
+        Page<GrievanceCommentDto> first = grievanceService.getCommentsByTrackingId(discussed.getTrackingId(), 0, 3);
+        assertEquals(4, first.getTotalElements());
+        assertEquals("Update 0", first.getContent().get(0).getContent());
+        assertEquals(1, grievanceService.getComments(discussed.getId(), 1, 3).getContent().size());
+    }
+
+    @Test
+    void commentPageSizeIsCheckedAndCapped() {
+        String trackingId = discussed.getTrackingId();
+        assertThrows(BadRequestException.class, () -> grievanceService.getCommentsByTrackingId(trackingId, 0, 0));
+        assertThrows(BadRequestException.class, () -> grievanceService.getCommentsByTrackingId(trackingId, 0, -1));
+        assertThrows(BadRequestException.class, () -> grievanceService.getComments(discussed.getId(), -1, 20));
+
+        Page<GrievanceCommentDto> capped = grievanceService.getCommentsByTrackingId(trackingId, 0, 1_000_000);
+        assertEquals(KeysetCursors.MAX_PAGE_SIZE, capped.getSize());
+    }
+
+    private GrievanceDto grievance(String subject) {
+        GrievanceDto dto = new GrievanceDto();
+        dto.setSubject(subject);
+        dto.setContent(subject + " at the fair price shop.");
+        return dto;
+    }
+
+    private GrievanceCommentDto comment(String content) {
+        GrievanceCommentDto dto = new GrievanceCommentDto();
+        dto.setContent(content);
+        return dto;
+    }
+}
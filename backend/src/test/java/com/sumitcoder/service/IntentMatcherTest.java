@@ -0,0 +1,76 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+class IntentMatcherTest {
+
+    private static final String[][][] TABLE = {
+            { { "who are you", "your name", "नाम क्या है" } },
+            { { "kitna", "how much" }, { "chawal", "rice" } },
+            { { "kab hai", "next", "agla" } },
+            { { "status", "shikayat" } },
+            { { "price", "kitne ka" } },
+    };
+
+    private final IntentMatcher<Integer> matcher = buildMatcher();
+
+    @Test
+    void classifiesByFirstMatchingIntent() {
+        assertEquals(0, matcher.classify("Hello, WHO ARE YOU?"));
+        assertEquals(1, matcher.classify("4 log hai, kitna chawal milega"));
+        assertEquals(2, matcher.classify("how much is next?"));
+        assertEquals(3, matcher.classify("status GRV-1234ABCD"));
+        assertEquals(0, matcher.classify("आपका नाम क्या है"));
+        assertNull(matcher.classify("namaste"));
+    }
+
+    @Test
+    void handlesOverlappingKeywords() {
+        // "kitne ka" shares a prefix with "kitna"; the automaton must fall back correctly.
+        assertEquals(4, matcher.classify("kitnkitne ka hai"));
+        assertEquals(2, matcher.classify("nenext"));
+    }
+
+    @Test
+    void agreesWithSequentialContainsChecks() {
+        Random random = new Random(42);
+        String[] fragments = { "who are", "you", "your name", "kitna", "how much", "rice", "chawal", "next",
+                "ne", "kab", " hai", "agla", "status", "shikayat", "price", "kitne ka", "KITNA", "Rice", "x", " " };
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder message = new StringBuilder();
+            int parts = random.nextInt(6);
+            for (int p = 0; p < parts; p++) {
+                message.append(fragments[random.nextInt(fragments.length)]);
+            }
+            assertEquals(classifyWithContains(message.toString()), matcher.classify(message), message.toString());
+        }
+    }
+
+    private Integer classifyWithContains(String message) {
+        String lower = message.toLowerCase();
+        for (int intent = 0; intent < TABLE.length; intent++) {
+            boolean allGroups = true;
+            for (String[] group : TABLE[intent]) {
+                allGroups &= List.of(group).stream().anyMatch(lower::contains);
+            }
+            if (allGroups) {
+                return intent;
+            }
+        }
+        return null;
+    }
+
+    private static IntentMatcher<Integer> buildMatcher() {
+        IntentMatcher.Builder<Integer> builder = IntentMatcher.builder();
+        for (int intent = 0; intent < TABLE.length; intent++) {
+            builder.intent(intent, TABLE[intent]);
+        }
+        return builder.build();
+    }
+}
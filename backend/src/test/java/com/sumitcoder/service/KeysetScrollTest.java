@@ -0,0 +1,110 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.dto.GrievanceDto;
+import com.sumitcoder.entity.Grievance;
+import com.sumitcoder.exception.BadRequestException;
+import com.sumitcoder.repository.GrievanceRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Walking a keyset cursor visits every row exactly once, also when many rows share the same
+ * createdAt, and a cursor that was not issued by the list it is sent to is answered with 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class KeysetScrollTest {
+
+    @Autowired
+    private GrievanceService grievanceService;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void walkingTheCursorReturnsEveryGrievanceOnceDespiteEqualTimestamps() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            GrievanceDto dto = new GrievanceDto();
+            dto.setSubject("Same moment " + i);
+            dto.setContent("Filed in the same instant as the others.");
+            created.add(grievanceService.createGrievance(dto, null).getId());
+        }
+        List<Grievance> tied = grievanceRepository.findAllById(created);
+        LocalDateTime sameMoment = LocalDateTime.of(2024, 6, 1, 12, 0);
+        tied.forEach(grievance -> grievance.setCreatedAt(sameMoment));
+        grievanceRepository.saveAll(tied);
+        assertTrue(grievanceRepository.findAllById(created).stream().allMatch(g -> sameMoment.equals(g.getCreatedAt())));
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/grievances/admin/scroll").param("size", "3").with(user("admin"));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode slice = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            slice.get("content").forEach(grievance -> walked.add(grievance.get("id").asLong()));
+            cursor = slice.get("hasNext").asBoolean() ? slice.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(walked.size(), new HashSet<>(walked).size(), "a grievance was returned twice: " + walked);
+        Set<Long> all = grievanceRepository.findAll().stream().map(Grievance::getId).collect(Collectors.toSet());
+        assertEquals(all, new HashSet<>(walked));
+        assertTrue(walked.containsAll(created));
+    }
+
+    @Test
+    void garbageOrTamperedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/announcements/public/scroll").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+
+        // Well-formed, but with a key this list does not sort by
+        String tampered = encode("createdAt=2024-06-01T12:00&secret=1");
+        mockMvc.perform(get("/api/grievances/admin/scroll").param("cursor", tampered).with(user("admin")))
+                .andExpect(status().isBadRequest());
+        // A records cursor carries only an id
+        mockMvc.perform(get("/api/announcements/public/scroll").param("cursor", encode("id=42")))
+                .andExpect(status().isBadRequest());
+        // A key that does not parse
+        assertThrows(BadRequestException.class,
+                () -> grievanceService.scrollGrievances(encode("createdAt=yesterday&id=42"), 10));
+    }
+
+    private String encode(String keys) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+}
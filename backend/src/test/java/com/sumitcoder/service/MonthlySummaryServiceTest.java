@@ -0,0 +1,137 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.dto.VillageMonthlySummaryDto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The monthly rollup kept up to date by DistributionService as records are written matches a
+ * rebuild of the same year from distribution_records, family counts and kg totals alike.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MonthlySummaryServiceTest {
+
+    private static final int YEAR = 2016;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private MonthlySummaryService monthlySummaryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static boolean recorded;
+
+    @BeforeEach
+    void setUp() {
+        // The application context (and its database) is shared by the tests of this class
+        if (recorded) {
+            return;
+        }
+        recorded = true;
+        // rice-per-person is 5 kg: Anand is short 5 kg, Bina got her 10 kg, Chandra got more than 15 kg
+        distributionService.createRecordsInBulk(List.of(
+                row("Anand", "7200000001", "Summarypur", 4, 15, LocalDate.of(YEAR, 3, 4)),
+                row("Bina", "7200000002", "Summarypur", 2, 10, LocalDate.of(YEAR, 3, 9)),
+                row("Chandra", "7200000003", "Tallygaon", 3, 18, LocalDate.of(YEAR, 3, 11)),
+                row("Anand", "7200000001", "Summarypur", 4, 12, LocalDate.of(YEAR, 4, 2))));
+        distributionService.createPublicRecord(row("Devi", "7200000004", "Summarypur", 5, 20, LocalDate.of(YEAR, 3, 15)));
+        // Already recorded this month: counted once
+        distributionService.createPublicRecord(row("Bina", "7200000002", "Summarypur", 2, 10, LocalDate.of(YEAR, 3, 28)));
+    }
+
+    @Test
+    void incrementalRowsMatchARebuild() {
+        List<VillageMonthlySummaryDto> incremental = summaries();
+
+        VillageMonthlySummaryDto march = incremental.get(0);
+        assertEquals("Summarypur", march.getVillageName());
+        assertEquals(3, march.getFamiliesServed());
+        assertKg("45", march.getKgDistributed());
+        assertKg("55", march.getKgEntitled());
+        assertKg("10", march.getTotalDeficitKg());
+        assertEquals(3, incremental.size());
+
+        monthlySummaryService.rebuildYear(YEAR);
+        List<VillageMonthlySummaryDto> rebuilt = summaries();
+
+        assertEquals(incremental.size(), rebuilt.size());
+        for (int i = 0; i < incremental.size(); i++) {
+            VillageMonthlySummaryDto expected = incremental.get(i);
+            VillageMonthlySummaryDto actual = rebuilt.get(i);
+            assertEquals(expected.getVillageName(), actual.getVillageName());
+            assertEquals(expected.getMonth(), actual.getMonth());
+            assertEquals(expected.getFamiliesServed(), actual.getFamiliesServed());
+            assertKg(expected.getKgDistributed().toPlainString(), actual.getKgDistributed());
+            assertKg(expected.getKgEntitled().toPlainString(), actual.getKgEntitled());
+            assertKg(expected.getTotalDeficitKg().toPlainString(), actual.getTotalDeficitKg());
+        }
+    }
+
+    @Test
+    void summaryEndpointsAnswerFromTheRollup() throws Exception {
+        mockMvc.perform(get("/api/reports/monthly-summary").param("year", String.valueOf(YEAR)).param("month", "3")
+                        .param("village", "Tallygaon").with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].familiesServed").value(1))
+                .andExpect(jsonPath("$[0].kgDistributed").value(18.0))
+                .andExpect(jsonPath("$[0].totalDeficitKg").value(0.0));
+        mockMvc.perform(get("/api/reports/monthly-summary").param("year", String.valueOf(YEAR)).param("month", "13")
+                        .with(user("admin")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/reports/monthly-summary/rebuild").param("year", String.valueOf(YEAR)).with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.summaryRows").value(3));
+    }
+
+    // --- Helper Methods ---
+
+    private List<VillageMonthlySummaryDto> summaries() {
+        List<VillageMonthlySummaryDto> summaries = new ArrayList<>();
+        for (int month = 3; month <= 4; month++) {
+            summaries.addAll(monthlySummaryService.getMonthlySummary(YEAR, month, "Summarypur"));
+            summaries.addAll(monthlySummaryService.getMonthlySummary(YEAR, month, "Tallygaon"));
+        }
+        return summaries;
+    }
+
+    private void assertKg(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " kg but was " + actual);
+    }
+
+    private DistributionRecordDto row(String head, String contactNumber, String village, int members, int kg, LocalDate date) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName(head);
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(members);
+        row.setVillageName(village);
+        row.setRiceReceivedKg(BigDecimal.valueOf(kg));
+        row.setDistributionDate(date);
+        return row;
+    }
+}
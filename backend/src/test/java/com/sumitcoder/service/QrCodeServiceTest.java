@@ -0,0 +1,103 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.entity.Family;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Batch ration card QR codes: one readable PNG per family of the village, in id order,
+ * with an index, and the same bytes again when served from the disk cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QrCodeServiceTest {
+
+    @Autowired
+    private QrCodeService qrCodeService;
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Test
+    void zipHasOneScannableCodePerFamilyOfTheVillage() throws Exception {
+        List<DistributionRecordDto> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rows.add(row("Qrpur", String.format("66%08d", i)));
+        }
+        rows.add(row("Elsewhere", "6699999999"));
+        distributionService.createRecordsInBulk(rows);
+
+        List<Family> families = qrCodeService.findFamiliesForQrBatch("qrpur");
+        assertEquals(25, families.size());
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        assertEquals(25, qrCodeService.writeQrCodeZip(families, 200, zip));
+
+        // Cards carry the family's uniqueFamilyId
+        String firstId = families.get(0).getUniqueFamilyId();
+        String lastId = families.get(24).getUniqueFamilyId();
+        Map<String, byte[]> entries = unzip(zip.toByteArray());
+        assertEquals(26, entries.size());
+        assertEquals(firstId, decode(entries.get(firstId + ".png")));
+        assertTrue(new String(entries.get("index.csv"), StandardCharsets.UTF_8)
+                .contains("\"" + lastId + ".png\",\"" + lastId + "\",\"Head\",\"6600000024\",\"Qrpur\""));
+
+        // Served from the disk cache on the second run
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        qrCodeService.writeQrCodeZip(families, 200, again);
+        assertArrayEquals(entries.get(lastId + ".png"), unzip(again.toByteArray()).get(lastId + ".png"));
+    }
+
+    private Map<String, byte[]> unzip(byte[] zip) throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), in.readAllBytes());
+            }
+        }
+        return entries;
+    }
+
+    private String decode(byte[] png) throws Exception {
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(ImageIO.read(new ByteArrayInputStream(png)))));
+        return new QRCodeReader().decode(bitmap).getText();
+    }
+
+    private DistributionRecordDto row(String village, String contactNumber) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName("Head");
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(3);
+        row.setVillageName(village);
+        row.setRiceReceivedKg(BigDecimal.valueOf(15));
+        row.setDistributionDate(LocalDate.of(2024, 9, 2));
+        return row;
+    }
+}
@@ -0,0 +1,123 @@
+package com.sumitcoder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sumitcoder.dto.DistributionRecordDto;
+import com.sumitcoder.repository.FamilyRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The record export streams RFC 4180 CSV or NDJSON for a year or a month, under a file name
+ * that says which, and rejects unknown formats and months with 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RecordExportTest {
+
+    private static final int YEAR = 2019;
+
+    private static final String CSV_HEADER = "id,distributionDate,familyId,uniqueFamilyId,familyHeadName,"
+            + "contactNumber,villageName,numMembers,riceReceivedKg,entitlementKg,deficitKg";
+
+    @Autowired
+    private DistributionService distributionService;
+
+    @Autowired
+    private FamilyRepository familyRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        // The application context (and its database) is shared by the tests of this class
+        if (familyRepository.findByContactNumber("7700000001").isPresent()) {
+            return;
+        }
+        distributionService.createRecordsInBulk(List.of(
+                row("Rao, \"Senior\"", "7700000001", 4, LocalDate.of(YEAR, 3, 5), 12),
+                row("Meena\nDevi", "7700000002", 2, LocalDate.of(YEAR, 3, 20), 10),
+                row("Sita", "7700000003", 3, LocalDate.of(YEAR, 4, 2), 15)));
+    }
+
+    @Test
+    void monthIsExportedAsQuotedCsv() throws Exception {
+        String csv = mockMvc.perform(get("/api/records/export").param("year", String.valueOf(YEAR)).param("month", "3")
+                        .with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"distribution-records-2019-03.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(csv.startsWith(CSV_HEADER + "\n"), csv);
+        assertTrue(csv.endsWith("\n"), csv);
+        // Commas and quotes are quoted and doubled; the line break stays inside its quoted field
+        assertTrue(csv.contains(",\"Rao, \"\"Senior\"\"\",7700000001,Exportpur,4,12.00,20.00,8.00\n"), csv);
+        assertTrue(csv.contains(",\"Meena\nDevi\",7700000002,Exportpur,2,10.00,10.00,0.00\n"), csv);
+        // April is outside the month filter
+        assertFalse(csv.contains("7700000003"), csv);
+    }
+
+    @Test
+    void yearIsExportedAsNdjson() throws Exception {
+        String ndjson = mockMvc.perform(get("/api/records/export").param("year", String.valueOf(YEAR)).param("format", "ndjson")
+                        .with(user("admin")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"distribution-records-2019.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = ndjson.lines().toList();
+        assertEquals(3, lines.size(), ndjson);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("Rao, \"Senior\"", first.get("familyHeadName").asText());
+        assertEquals("2019-03-05", first.get("distributionDate").asText());
+        assertEquals(0, new BigDecimal("8.00").compareTo(first.get("deficitKg").decimalValue()));
+        assertEquals("Meena\nDevi", objectMapper.readTree(lines.get(1)).get("familyHeadName").asText());
+        assertEquals("7700000003", objectMapper.readTree(lines.get(2)).get("contactNumber").asText());
+    }
+
+    @Test
+    void unknownFormatOrMonthIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/records/export").param("year", String.valueOf(YEAR)).param("format", "xml").with(user("admin")))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+        mockMvc.perform(get("/api/records/export").param("year", String.valueOf(YEAR)).param("month", "13").with(user("admin")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private DistributionRecordDto row(String head, String contactNumber, int members, LocalDate date, int kg) {
+        DistributionRecordDto row = new DistributionRecordDto();
+        row.setFamilyHeadName(head);
+        row.setContactNumber(contactNumber);
+        row.setNumMembers(members);
+        row.setVillageName("Exportpur");
+        row.setRiceReceivedKg(BigDecimal.valueOf(kg));
+        row.setDistributionDate(date);
+        return row;
+    }
+}
@@ -59,6 +59,7 @@ export default function GrievancesAdminView({ token }) {
     const [filter, setFilter] = useState('Active');
     const [currentPage, setCurrentPage] = useState(0);
     const [openComments, setOpenComments] = useState({});
+    const [comments, setComments] = useState({});
 
     const fetchGrievances = async () => {
         setIsLoading(true);
@@ -93,7 +94,22 @@ export default function GrievancesAdminView({ token }) {
         } catch (err) { setError(err.message); }
     };
 
+    // Comments are no longer part of the grievance list; load a thread when its section is opened
+    const fetchComments = async (grievanceId) => {
+        try {
+            const res = await fetch(`${API_BASE_URL}/api/grievances/admin/${grievanceId}/comments?page=0&size=50`, { headers: { 'Authorization': `Bearer ${token}` } });
+            if (!res.ok) throw new Error('Failed to fetch comments.');
+            const data = await res.json();
+            setComments(prev => ({ ...prev, [grievanceId]: data.content }));
+        } catch (err) {
+            setError(err.message);
+        }
+    };
+
     const toggleCommentSection = (grievanceId) => {
+        if (!openComments[grievanceId]) {
+            fetchComments(grievanceId);
+        }
         setOpenComments(prev => ({
             ...prev,
             [grievanceId]: !prev[grievanceId]
@@ -157,21 +173,23 @@ export default function GrievancesAdminView({ token }) {
                             <div className="mt-4">
                                 <h5 className="font-semibold text-gray-600">{t('attachedEvidence')}:</h5>
                                 <a href={g.imageUrl} target="_blank" rel="noopener noreferrer">
-                                    <img src={g.imageUrl} alt="Grievance evidence" className="mt-2 rounded-lg border max-h-60" />
+                                    <img src={g.thumbnailUrl || g.imageUrl} alt="Grievance evidence" loading="lazy" className="mt-2 rounded-lg border max-h-60" />
                                 </a>
                             </div>
                         )}
+                        {g.imageStatus === 'PENDING' && <p className="mt-4 text-sm text-gray-500 italic">{t('imageProcessing')}</p>}
+                        {g.imageStatus === 'REJECTED' && <p className="mt-4 text-sm text-red-600 italic">{t('imageRejected')}</p>}
 
                         <div className="mt-4 border-t pt-4">
                              <button onClick={() => toggleCommentSection(g.id)} className="text-sm font-semibold text-blue-600 hover:underline">
-                                {t('adminComments')} {openComments[g.id] ? '▲' : '▼'}
+                                {t('adminComments')} ({g.commentCount ?? 0}) {openComments[g.id] ? '▲' : '▼'}
                              </button>
 
                             {openComments[g.id] && (
                                 <div className="mt-2">
-                                    {g.comments && g.comments.length > 0 ? (
+                                    {comments[g.id] && comments[g.id].length > 0 ? (
                                         <div className="space-y-2 text-sm">
-                                            {g.comments.map(comment => (
+                                            {comments[g.id].map(comment => (
                                                 <div key={comment.id} className="p-2 bg-green-50 border-l-4 border-green-400 rounded-r-md">
                                                     <p className="text-gray-800">{comment.content}</p>
                                                     <p className="text-xs text-gray-500 text-right mt-1">
@@ -183,7 +201,7 @@ export default function GrievancesAdminView({ token }) {
                                     ) : (
                                         <p className="text-sm text-gray-500 italic">{t('noCommentsYet')}</p>
                                     )}
-                                    <CommentForm grievanceId={g.id} token={token} onCommentPosted={fetchGrievances} />
+                                    <CommentForm grievanceId={g.id} token={token} onCommentPosted={() => { fetchComments(g.id); fetchGrievances(); }} />
                                 </div>
                             )}
                         </div>
@@ -19,7 +19,15 @@ export default function CheckGrievanceStatus() {
         try {
             const response = await fetch(`${API_BASE_URL}/api/grievances/public/status/${trackingId}`);
             if (!response.ok) throw new Error('Tracking ID not found.');
-            setGrievance(await response.json());
+            const data = await response.json();
+            // Comments are served separately from the status; fetch the thread only when there is one
+            if (data.commentCount > 0) {
+                const commentsResponse = await fetch(`${API_BASE_URL}/api/grievances/public/status/${trackingId}/comments?page=0&size=50`);
+                if (commentsResponse.ok) {
+                    data.comments = (await commentsResponse.json()).content;
+                }
+            }
+            setGrievance(data);
         } catch (err) {
             setError(err.message);
         } finally {
@@ -10,6 +10,8 @@ export default function GrievanceForm() {
     const [message, setMessage] = useState('');
     const [error, setError] = useState('');
     const [isLoading, setIsLoading] = useState(false);
+    // Sent as Idempotency-Key: kept when a submission fails, so a retry cannot file the grievance twice
+    const [idempotencyKey, setIdempotencyKey] = useState(() => crypto.randomUUID());
     
     const handleTextChange = (e) => setFormData(prev => ({ ...prev, [e.target.name]: e.target.value }));
     const handleFileChange = (e) => {
@@ -30,7 +32,7 @@ export default function GrievanceForm() {
         }
         
         try {
-            const response = await fetch(`${API_BASE_URL}/api/grievances/public`, { method: 'POST', body: submissionData });
+            const response = await fetch(`${API_BASE_URL}/api/grievances/public`, { method: 'POST', headers: { 'Idempotency-Key': idempotencyKey }, body: submissionData });
             if (!response.ok) throw new Error('Failed to submit grievance.');
             const result = await response.json();
             setMessage(
@@ -41,6 +43,7 @@ export default function GrievanceForm() {
             );
             setFormData({ subject: '', content: '', contactInfo: '' });
             setImageFile(null);
+            setIdempotencyKey(crypto.randomUUID());
             e.target.reset();
         } catch (err) {
             setError(err.message);
@@ -41,6 +41,9 @@ const SubmissionSummary = ({ result, onClose }) => {
             `}</style>
             <div className="bg-white p-6 md:p-8 rounded-xl shadow-lg max-w-2xl mx-auto print-container">
                 <h2 className="text-2xl font-bold text-gray-800 mb-6 text-center">{t('submissionSummaryTitle')}</h2>
+                {result.alreadyRecorded && (
+                    <p className="mb-4 p-3 rounded-lg bg-yellow-100 text-yellow-800 text-center">{t('alreadyRecordedNotice')}</p>
+                )}
                 
                 <div className="space-y-4 text-lg border p-6 rounded-lg bg-gray-50">
                     <SummaryRow label={t('familyHeadName')} value={result.family.familyHeadName} />
@@ -89,6 +92,9 @@ export default function PublicForm() {
         distributionDate: new Date().toISOString().split('T')[0]
     });
     const [submissionResult, setSubmissionResult] = useState(null); 
+    // Sent as Idempotency-Key: kept when a submission fails, so resubmitting after a dropped
+    // connection cannot record the distribution twice; renewed after each success.
+    const [idempotencyKey, setIdempotencyKey] = useState(() => crypto.randomUUID());
     const [isLoading, setIsLoading] = useState(false);
     const [isFetchingFamily, setIsFetchingFamily] = useState(false);
     const [error, setError] = useState('');
@@ -145,10 +151,11 @@ export default function PublicForm() {
         setSubmissionResult(null);
         setError('');
         try {
-            const res = await fetch(`${API_BASE_URL}/api/records/public`, { method: 'POST', headers: { 'Content-Type': 'application/json' }, body: JSON.stringify(formData) });
+            const res = await fetch(`${API_BASE_URL}/api/records/public`, { method: 'POST', headers: { 'Content-Type': 'application/json', 'Idempotency-Key': idempotencyKey }, body: JSON.stringify(formData) });
             if (!res.ok) { throw new Error((await res.json()).message || 'Submission error.'); }
             const result = await res.json();
             setSubmissionResult(result);
+            setIdempotencyKey(crypto.randomUUID());
             setFormData({ familyHeadName: '', contactNumber: '', numMembers: '', villageName: '', riceReceivedKg: '', distributionDate: new Date().toISOString().split('T')[0] });
         } catch (err) { setError(err.message); } 
         finally { setIsLoading(false); }